@@ -0,0 +1,120 @@
+package io.github.zanella.nomad.benchmarks;
+
+import io.github.zanella.nomad.v1.transport.Transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+import feign.Request;
+import feign.Response;
+
+/**
+ * Answers every request with the same JSON body, so benchmarks measure the client and not the network.
+ * <p>
+ * The body can be gzip compressed, for the requests that accept it, and delivered no faster than a given link speed.
+ */
+public final class CannedTransport implements Transport {
+    private static final Map<String, Collection<String>> JSON_HEADERS =
+        Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+
+    private static final Map<String, Collection<String>> GZIP_JSON_HEADERS = new HashMap<>(JSON_HEADERS);
+
+    static {
+        GZIP_JSON_HEADERS.put("Content-Encoding", Collections.singletonList("gzip"));
+    }
+
+    private final byte[] body;
+
+    private final byte[] compressed;
+
+    private final long bytesPerSecond;
+
+    public CannedTransport(final String body) {
+        this(body, false, 0);
+    }
+
+    /**
+     * @param gzip           whether to compress the body when the request accepts gzip
+     * @param bytesPerSecond link speed, or 0 for none
+     */
+    public CannedTransport(final String body, final boolean gzip, final long bytesPerSecond) {
+        this.body = body.getBytes(StandardCharsets.UTF_8);
+        this.compressed = gzip ? gzip(this.body) : null;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /** Bytes sent for each answer. */
+    public int transferSize() {
+        return compressed != null ? compressed.length : body.length;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) {
+        final boolean gzip = compressed != null && request.headers().containsKey("Accept-Encoding");
+        final byte[] sent = gzip ? compressed : body;
+        final Map<String, Collection<String>> headers = gzip ? GZIP_JSON_HEADERS : JSON_HEADERS;
+        if (bytesPerSecond <= 0) {
+            return Response.create(200, "OK", headers, sent);
+        }
+        return Response.create(200, "OK", headers, new Throttled(new ByteArrayInputStream(sent)), sent.length);
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        return CompletableFuture.completedFuture(execute(request, options));
+    }
+
+    private static byte[] gzip(final byte[] body) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Waits for each read as long as the link would take to carry it.
+     */
+    private final class Throttled extends FilterInputStream {
+        Throttled(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read >= 0) {
+                transfer(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                transfer(read);
+            }
+            return read;
+        }
+
+        private void transfer(final int bytes) {
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1) * bytes / bytesPerSecond);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.zanella.nomad.benchmarks;
+
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer and decode time of a large {@code /v1/allocations} list, plain or gzip compressed, over an unlimited link
+ * and over a 100 Mbit/s one. The setup prints the bytes sent for each answer.
+ * <p>
+ * {@code java -jar target/benchmarks.jar CompressionBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompressionBenchmark {
+    @Param({ "5000" })
+    public int allocations;
+
+    @Param({ "false", "true" })
+    public boolean gzip;
+
+    /** Link speed in bytes per second, 0 for none. */
+    @Param({ "0", "12500000" })
+    public long bytesPerSecond;
+
+    private V1Client v1;
+
+    @Setup
+    public void setUp() {
+        final CannedTransport transport = new CannedTransport(Payloads.allocations(allocations), gzip, bytesPerSecond);
+        System.out.println("\nbytes per answer: " + transport.transferSize());
+
+        v1 = V1Client.builder("http://localhost", 4646).transport(transport).compression(gzip).build();
+    }
+
+    @Benchmark
+    public List<Allocation> getAllocations() {
+        return v1.allocations.getAllocations();
+    }
+}
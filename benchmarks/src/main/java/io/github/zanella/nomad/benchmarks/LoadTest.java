@@ -0,0 +1,195 @@
+package io.github.zanella.nomad.benchmarks;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.client.models.LogStream;
+import io.github.zanella.nomad.v1.common.models.QueryResult;
+import io.github.zanella.nomad.v1.metrics.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * Drives a {@link NomadClient} against a {@link SyntheticNomad} from {@code concurrency} threads and reports the
+ * throughput, the latency percentiles and the heap used by the client:
+ * <p>
+ * {@code java -cp target/benchmarks.jar io.github.zanella.nomad.benchmarks.LoadTest scenario=mixed concurrency=32}
+ * <p>
+ * Options, as {@code name=value}: {@code scenario} ({@code mixed}, {@code allocation}, {@code node}, {@code nodes},
+ * {@code allocations}, {@code blocking} or {@code logs}), {@code concurrency}, {@code nodes}, {@code allocations},
+ * {@code warmup} and {@code duration} in seconds, {@code latency} and {@code jitter} of the server in
+ * milliseconds, {@code advance}, the milliseconds between two index moves, 0 for none, and {@code deduplicate},
+ * whether the client deduplicates the strings it decodes.
+ */
+public final class LoadTest {
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put("scenario", "mixed");
+        DEFAULTS.put("concurrency", "16");
+        DEFAULTS.put("nodes", "5000");
+        DEFAULTS.put("allocations", "200000");
+        DEFAULTS.put("warmup", "5");
+        DEFAULTS.put("duration", "30");
+        DEFAULTS.put("latency", "0");
+        DEFAULTS.put("jitter", "0");
+        DEFAULTS.put("advance", "5000");
+        DEFAULTS.put("deduplicate", "false");
+    }
+
+    private final Map<String, String> options;
+
+    private final int nodes;
+
+    private final int allocations;
+
+    private final NomadClient nomad;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    /** Last answer of each thread, so that the heap holds what a client would. */
+    private final AtomicReferenceArray<Object> retained;
+
+    private LoadTest(final Map<String, String> options, final SyntheticNomad server) {
+        this.options = options;
+        this.nodes = intOption("nodes");
+        this.allocations = intOption("allocations");
+        this.nomad = new NomadClient(NomadClient.builder(server.getHost(), server.getPort())
+            .deduplicateStrings(Boolean.parseBoolean(options.get("deduplicate"))).build());
+        this.retained = new AtomicReferenceArray<>(intOption("concurrency"));
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            final int equals = arg.indexOf('=');
+            if (equals < 0 || !DEFAULTS.containsKey(arg.substring(0, equals))) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+
+        try (SyntheticNomad server = new SyntheticNomad(Integer.parseInt(options.get("nodes")),
+            Integer.parseInt(options.get("allocations")))) {
+            server.latency(Long.parseLong(options.get("latency")), Long.parseLong(options.get("jitter")),
+                TimeUnit.MILLISECONDS);
+            final long advance = Long.parseLong(options.get("advance"));
+            if (advance > 0) {
+                server.advanceEvery(advance, TimeUnit.MILLISECONDS);
+            }
+            new LoadTest(options, server).run();
+        }
+    }
+
+    private void run() throws Exception {
+        final String scenario = options.get("scenario");
+        final int concurrency = intOption("concurrency");
+        System.out.printf("scenario %s, %d threads, cluster of %d nodes and %d allocations%n",
+            scenario, concurrency, nodes, allocations);
+
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final AtomicLong peakHeap = new AtomicLong();
+        final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+            0, 50, TimeUnit.MILLISECONDS);
+
+        final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            drive(workers, scenario, concurrency, TimeUnit.SECONDS.toNanos(intOption("warmup")));
+            latencies.reset();
+            errors.set(0);
+            peakHeap.set(0);
+
+            final long start = System.nanoTime();
+            drive(workers, scenario, concurrency, TimeUnit.SECONDS.toNanos(intOption("duration")));
+            final double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.gc();
+            final long retainedHeap = memory.getHeapMemoryUsage().getUsed();
+
+            System.out.printf("operations   %d (%d errors)%n", latencies.getCount(), errors.get());
+            System.out.printf("throughput   %.1f ops/s%n", latencies.getCount() / seconds);
+            System.out.printf("latency      p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latencies.getPercentile(0.5) / 1e6, latencies.getPercentile(0.99) / 1e6, latencies.getMax() / 1e6);
+            System.out.printf("heap         peak %d MiB, after GC %d MiB%n", peakHeap.get() >> 20, retainedHeap >> 20);
+        } finally {
+            workers.shutdownNow();
+            sampler.shutdownNow();
+        }
+    }
+
+    private void drive(final ExecutorService workers, final String scenario, final int concurrency,
+                       final long nanos) throws Exception {
+        final long deadline = System.nanoTime() + nanos;
+        final List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            final int worker = i;
+            running.add(workers.submit(() -> {
+                long index = 0;
+                while (System.nanoTime() < deadline) {
+                    final long start = System.nanoTime();
+                    try {
+                        final Object answer = call(scenario, index);
+                        if (answer instanceof QueryResult) {
+                            index = ((QueryResult<?>) answer).getIndex();
+                        }
+                        retained.set(worker, answer);
+                        latencies.record(System.nanoTime() - start);
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+    }
+
+    private Object call(final String scenario, final long index) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (scenario) {
+            case "mixed":
+                final int dice = random.nextInt(100);
+                return call(dice < 70 ? "allocation" : dice < 90 ? "node" : dice < 99 ? "nodes" : "allocations", index);
+            case "allocation":
+                return nomad.v1.allocation.getAllocation(SyntheticNomad.id(random.nextInt(allocations)));
+            case "node":
+                final String nodeId = SyntheticNomad.id(random.nextInt(nodes));
+                nomad.v1.node.getNode(nodeId);
+                return nomad.v1.node.getNodeAllocations(nodeId);
+            case "nodes":
+                return nomad.v1.nodes.getNodes();
+            case "allocations":
+                return nomad.v1.allocations.getAllocations();
+            case "blocking":
+                return nomad.v1.nodes.getNodes(index, "10s");
+            case "logs":
+                try (Stream<LogStream> frames = nomad.v1.client.streamAllocationLogs(
+                    SyntheticNomad.id(random.nextInt(allocations)), "app", false, LogStream.Type.stdout, 0,
+                    LogStream.Origin.start, false)) {
+                    return frames.count();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown scenario " + scenario);
+        }
+    }
+
+    private int intOption(final String name) {
+        return Integer.parseInt(options.get(name));
+    }
+}
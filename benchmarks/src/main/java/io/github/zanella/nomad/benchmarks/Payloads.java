@@ -0,0 +1,125 @@
+package io.github.zanella.nomad.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Answers of a Nomad agent for the benchmarks, read from {@code payloads/} or generated at the wanted size.
+ */
+public final class Payloads {
+    private Payloads() { }
+
+    /**
+     * A JSON document of the classpath, e.g. {@code "allocation.json"}.
+     */
+    public static String resource(final String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No payload " + name);
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                bytes.write(buffer, 0, read);
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A {@code /v1/allocations} list of {@code count} stubs, each with its task states.
+     */
+    public static String allocations(final int count) {
+        final StringBuilder json = new StringBuilder(count * 400).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            final String id = String.format("%08x-%04x-%04x-%04x-%012x", i * 2654435761L & 0xffffffffL, i & 0xffff,
+                0x4000 | (i * 7 & 0xfff), 0x8000 | (i * 13 & 0x3fff), i * 0x9e3779b97f4aL & 0xffffffffffffL);
+            json.append("{\"ID\":\"").append(id)
+                .append("\",\"EvalID\":\"").append(id)
+                .append("\",\"Name\":\"web-").append(i % 50).append(".frontend[").append(i % 10)
+                .append("]\",\"NodeID\":\"node-").append(i % 200)
+                .append("\",\"JobID\":\"web-").append(i % 50)
+                .append("\",\"TaskGroup\":\"frontend\",\"DesiredStatus\":\"run\",\"DesiredDescription\":\"\"")
+                .append(",\"ClientStatus\":\"running\",\"ClientDescription\":\"\"")
+                .append(",\"TaskStates\":{\"nginx\":{\"State\":\"running\",\"Events\":[")
+                .append("{\"Type\":\"Received\",\"Time\":1475183830000000000},")
+                .append("{\"Type\":\"Started\",\"Time\":1475183831000000000}]}}")
+                .append(",\"CreateIndex\":").append(1000 + i)
+                .append(",\"ModifyIndex\":").append(2000 + i)
+                .append(",\"CreateTime\":").append(1475183830000000000L + i)
+                .append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * A {@code /v1/client/allocation/{id}/stats} answer for {@code tasks} tasks running {@code pids} processes each.
+     */
+    public static String allocationStats(final int tasks, final int pids) {
+        final StringBuilder json = new StringBuilder(tasks * (pids + 1) * 400).append("{\"ResourceUsage\":");
+        resourceUsage(json, 0);
+        json.append(",\"Tasks\":{");
+        for (int t = 0; t < tasks; t++) {
+            if (t > 0) {
+                json.append(',');
+            }
+            json.append("\"task-").append(t).append("\":{\"Pids\":{");
+            for (int p = 0; p < pids; p++) {
+                if (p > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(1000 + t * pids + p).append("\":");
+                resourceUsage(json, t * pids + p);
+            }
+            json.append("},\"ResourceUsage\":");
+            resourceUsage(json, t);
+            json.append(",\"Timestamp\":").append(1475183830000000000L + t).append('}');
+        }
+        return json.append("},\"Timestamp\":1475183830000000000}").toString();
+    }
+
+    /**
+     * {@code frames} root level frames of a followed log, as {@code /v1/client/fs/logs/} streams them, each carrying
+     * {@code frameBytes} bytes of log lines.
+     */
+    public static String logFrames(final int frames, final int frameBytes) {
+        final StringBuilder lines = new StringBuilder(frameBytes + 100);
+        for (int i = 0; lines.length() < frameBytes; i++) {
+            lines.append("2016-09-29T21:17:10.").append(100000 + i)
+                .append("Z [INFO] http: GET /v1/jobs?index=").append(1000 + i).append(" (1.2ms)\n");
+        }
+        lines.setLength(frameBytes);
+        final String data = Base64.getEncoder().encodeToString(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        final StringBuilder json = new StringBuilder(frames * (data.length() + 80));
+        for (int i = 0; i < frames; i++) {
+            json.append("{\"File\":\"alloc/logs/web.stdout.0\",\"Offset\":").append((long) i * frameBytes)
+                .append(",\"Data\":\"").append(data).append("\"}\n");
+        }
+        return json.toString();
+    }
+
+    private static void resourceUsage(final StringBuilder json, final int seed) {
+        json.append("{\"CpuStats\":{\"Measured\":[\"System Mode\",\"User Mode\",\"Percent\"]")
+            .append(",\"Percent\":").append(seed % 100 + 0.25)
+            .append(",\"SystemMode\":").append(seed % 7 + 0.5)
+            .append(",\"ThrottledPeriods\":0,\"ThrottledTime\":0")
+            .append(",\"TotalTicks\":").append(seed * 3.5)
+            .append(",\"UserMode\":").append(seed % 11 + 0.75)
+            .append("},\"MemoryStats\":{\"Measured\":[\"RSS\",\"Cache\",\"Swap\",\"Max Usage\"]")
+            .append(",\"Cache\":").append(4096L * seed)
+            .append(",\"KernelMaxUsage\":0,\"KernelUsage\":0")
+            .append(",\"MaxUsage\":").append(1L << 20 + seed % 8)
+            .append(",\"RSS\":").append(65536L * (seed + 1))
+            .append(",\"Swap\":0}}");
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.zanella.nomad.benchmarks;
+
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of a short lived tool: build a client in a fresh JVM and make a single call.
+ * <p>
+ * {@code java -jar target/benchmarks.jar StartupBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+    @Param({ "false", "true" })
+    public boolean lazy;
+
+    @Benchmark
+    public List<JobSummary> buildAndCallOnce() {
+        final V1Client v1 = V1Client.builder("http://localhost", 4646)
+            .transport(new CannedTransport("[]"))
+            .lazy(lazy)
+            .build();
+
+        return v1.jobs.getJobs();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(2)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public V1Client buildOnly() {
+        return V1Client.builder("http://localhost", 4646)
+            .transport(new CannedTransport("[]"))
+            .lazy(lazy)
+            .build();
+    }
+}
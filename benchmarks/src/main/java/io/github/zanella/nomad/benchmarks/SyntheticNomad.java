@@ -0,0 +1,485 @@
+package io.github.zanella.nomad.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process Nomad agent serving a generated cluster of {@code nodes} nodes running {@code allocations}
+ * allocations, for load testing the client against realistic sizes on the loopback interface.
+ * <p>
+ * It answers {@code /v1/nodes}, {@code /v1/node/{id}}, {@code /v1/node/{id}/allocations}, {@code /v1/allocations},
+ * {@code /v1/allocation/{id}}, {@code /v1/jobs}, {@code /v1/agent/self}, {@code /v1/status/leader} and
+ * {@code /v1/client/fs/logs/{id}}, which streams log frames while {@code follow=true}. Every call of
+ * {@link #advance()}, or tick of {@link #advanceEvery(long, TimeUnit)}, moves the Raft index and changes the
+ * client status of a slice of the allocations, releasing the blocking queries ({@code ?index=&wait=}) waiting for
+ * it. {@link #latency(long, long, TimeUnit)} delays every answer. The allocation list is rendered once per index.
+ */
+public final class SyntheticNomad implements Closeable {
+    private static final String[] CLIENT_STATUSES = { "running", "running", "running", "pending", "complete" };
+
+    private static final Pattern NODE = Pattern.compile("/v1/node/([^/]+)(/allocations)?");
+
+    private static final Pattern ALLOCATION = Pattern.compile("/v1/allocation/([^/]+)");
+
+    private static final Pattern LOGS = Pattern.compile("/v1/client/fs/logs/([^/]+)");
+
+    private static final int WRITE_SIZE = 64 << 10;
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m)?");
+
+    static {
+        // the headers and the body go out in separate writes, don't let Nagle hold the body back
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final int nodes;
+
+    private final int allocations;
+
+    private final int jobs;
+
+    /** Index of the last change of each allocation. */
+    private final int[] modifyIndexes;
+
+    private final HttpServer server;
+
+    private final ExecutorService handlers;
+
+    private final ScheduledExecutorService ticker;
+
+    private long index = 1000;
+
+    private int churned;
+
+    private final byte[] nodeList;
+
+    private final byte[] jobList;
+
+    private final Object renderLock = new Object();
+
+    /** Guarded by {@link #renderLock}. */
+    private Rendered allocationList = new Rendered(-1, null);
+
+    private volatile long latencyNanos;
+
+    private volatile long jitterNanos;
+
+    private volatile int churn;
+
+    private volatile int frameBytes = 4096;
+
+    private volatile long frameIntervalMillis = 100;
+
+    /**
+     * Starts serving on an ephemeral port of the loopback interface.
+     */
+    public SyntheticNomad(final int nodes, final int allocations) throws IOException {
+        if (nodes <= 0 || allocations <= 0) {
+            throw new IllegalArgumentException("A cluster needs nodes and allocations");
+        }
+        this.nodes = nodes;
+        this.allocations = allocations;
+        this.jobs = Math.max(1, allocations / 40);
+        this.modifyIndexes = new int[allocations];
+        this.churn = Math.max(1, allocations / 100);
+        for (int i = 0; i < allocations; i++) {
+            modifyIndexes[i] = (int) index;
+        }
+        this.nodeList = list(nodes, (json, n) -> node(json, n, false));
+        this.jobList = list(jobs, (json, j) -> job(json, j, false));
+
+        final AtomicInteger threads = new AtomicInteger();
+        this.handlers = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "synthetic-nomad-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "synthetic-nomad-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(handlers);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange);
+            } catch (IOException | RuntimeException e) {
+                // the client went away
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    public String getHost() {
+        return server.getAddress().getHostString();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public synchronized long getIndex() {
+        return index;
+    }
+
+    /**
+     * Delays every answer by {@code latency} plus a uniformly random part of {@code jitter}.
+     */
+    public SyntheticNomad latency(final long latency, final long jitter, final TimeUnit unit) {
+        this.latencyNanos = unit.toNanos(latency);
+        this.jitterNanos = unit.toNanos(jitter);
+        return this;
+    }
+
+    /**
+     * Allocations changing on each {@link #advance()}, 1% of them by default.
+     */
+    public SyntheticNomad churn(final int allocationsPerAdvance) {
+        this.churn = Math.max(1, Math.min(allocations, allocationsPerAdvance));
+        return this;
+    }
+
+    /**
+     * Size and pace of the frames of followed logs.
+     */
+    public SyntheticNomad logFrames(final int bytes, final long interval, final TimeUnit unit) {
+        this.frameBytes = bytes;
+        this.frameIntervalMillis = unit.toMillis(interval);
+        return this;
+    }
+
+    /**
+     * Calls {@link #advance()} every {@code period}.
+     */
+    public SyntheticNomad advanceEvery(final long period, final TimeUnit unit) {
+        ticker.scheduleAtFixedRate(this::advance, period, period, unit);
+        return this;
+    }
+
+    /**
+     * Moves the index, changes the next slice of allocations and wakes the blocking queries up.
+     */
+    public synchronized long advance() {
+        index++;
+        for (int i = 0; i < churn; i++) {
+            modifyIndexes[churned] = (int) index;
+            churned = (churned + 1) % allocations;
+        }
+        notifyAll();
+        return index;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final URI uri = exchange.getRequestURI();
+        final String path = uri.getPath();
+        final Map<String, String> query = query(uri.getRawQuery());
+
+        final long answered;
+        try {
+            answered = awaitIndex(query);
+            final long delay = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, answered, "method not allowed");
+            return;
+        }
+        Matcher matcher;
+        if ("/v1/nodes".equals(path)) {
+            send(exchange, answered, nodeList);
+        } else if ("/v1/allocations".equals(path)) {
+            final Rendered list = allocationList(answered);
+            send(exchange, list.index, list.body);
+        } else if ("/v1/jobs".equals(path)) {
+            send(exchange, answered, jobList);
+        } else if ("/v1/agent/self".equals(path)) {
+            send(exchange, answered, Payloads.resource("self.json").getBytes(StandardCharsets.UTF_8));
+        } else if ("/v1/status/leader".equals(path)) {
+            send(exchange, answered, ('"' + getHost() + ":4647\"").getBytes(StandardCharsets.UTF_8));
+        } else if ((matcher = NODE.matcher(path)).matches()) {
+            final int node = parseId(matcher.group(1), nodes);
+            if (node < 0) {
+                send(exchange, 404, answered, "node not found");
+            } else if (matcher.group(2) != null) {
+                send(exchange, answered, json(nodeAllocations(node)));
+            } else {
+                send(exchange, answered, json(node(new StringBuilder(), node, true)));
+            }
+        } else if ((matcher = ALLOCATION.matcher(path)).matches()) {
+            final int allocation = parseId(matcher.group(1), allocations);
+            if (allocation < 0) {
+                send(exchange, 404, answered, "alloc not found");
+            } else {
+                send(exchange, answered, json(allocation(new StringBuilder(), allocation, modifyIndex(allocation), true)));
+            }
+        } else if ((matcher = LOGS.matcher(path)).matches() && parseId(matcher.group(1), allocations) >= 0) {
+            streamLogs(exchange, Boolean.parseBoolean(query.get("follow")));
+        } else {
+            send(exchange, 404, answered, "not found");
+        }
+    }
+
+    /**
+     * Waits for the index to pass the one of a blocking query, at most its wait, and returns the index answered.
+     */
+    private synchronized long awaitIndex(final Map<String, String> query) throws InterruptedException {
+        final String after = query.get("index");
+        if (after == null) {
+            return index;
+        }
+        final long deadline = System.nanoTime() + waitNanos(query.get("wait"));
+        final long known = Long.parseLong(after);
+        for (long left; index <= known && (left = deadline - System.nanoTime()) > 0; ) {
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return index;
+    }
+
+    private synchronized int modifyIndex(final int allocation) {
+        return modifyIndexes[allocation];
+    }
+
+    /**
+     * The allocation list as of {@code at} or later, rendered by one thread at a time.
+     */
+    private Rendered allocationList(final long at) {
+        synchronized (renderLock) {
+            if (allocationList.index < at) {
+                final long renderedIndex;
+                final int[] snapshot;
+                synchronized (this) {
+                    renderedIndex = index;
+                    snapshot = modifyIndexes.clone();
+                }
+                allocationList = new Rendered(renderedIndex,
+                    list(allocations, (json, a) -> allocation(json, a, snapshot[a], false)));
+            }
+            return allocationList;
+        }
+    }
+
+    private static byte[] list(final int size, final ObjIntConsumer<StringBuilder> element) {
+        final StringBuilder json = new StringBuilder(size * 400).append('[');
+        for (int i = 0; i < size; i++) {
+            element.accept(i > 0 ? json.append(',') : json, i);
+        }
+        return json(json.append(']'));
+    }
+
+    private StringBuilder nodeAllocations(final int node) {
+        final StringBuilder json = new StringBuilder().append('[');
+        for (int a = node; a < allocations; a += nodes) {
+            allocation(a > node ? json.append(',') : json, a, modifyIndex(a), true);
+        }
+        return json.append(']');
+    }
+
+    private StringBuilder node(final StringBuilder json, final int node, final boolean full) {
+        json.append("{\"ID\":\"").append(id(node))
+            .append("\",\"Datacenter\":\"dc").append(node % 3 + 1)
+            .append("\",\"Name\":\"worker-").append(node)
+            .append("\",\"NodeClass\":\"").append(node % 4 == 0 ? "gpu" : "general")
+            .append("\",\"Drain\":false,\"Status\":\"ready\",\"StatusDescription\":\"\"")
+            .append(",\"CreateIndex\":").append(10 + node)
+            .append(",\"ModifyIndex\":").append(10 + node);
+        if (full) {
+            json.append(",\"HTTPAddr\":\"").append(getHost()).append(':').append(getPort())
+                .append("\",\"TLSEnabled\":false")
+                .append(",\"Attributes\":{\"arch\":\"amd64\",\"cpu.numcores\":\"16\",\"kernel.name\":\"linux\"")
+                .append(",\"driver.docker\":\"1\",\"unique.hostname\":\"worker-").append(node).append("\"}")
+                .append(",\"Resources\":{\"CPU\":32000,\"MemoryMB\":65536,\"DiskMB\":512000,\"IOPS\":0}")
+                .append(",\"Reserved\":{\"CPU\":500,\"MemoryMB\":1024,\"DiskMB\":10240,\"IOPS\":0}")
+                .append(",\"Links\":{},\"Meta\":{\"rack\":\"r").append(node % 40).append("\"}");
+        }
+        return json.append('}');
+    }
+
+    private StringBuilder allocation(final StringBuilder json, final int allocation, final int modifyIndex,
+                                     final boolean full) {
+        final int job = allocation % jobs;
+        json.append("{\"ID\":\"").append(id(allocation))
+            .append("\",\"EvalID\":\"").append(id(allocation / 10))
+            .append("\",\"Name\":\"service-").append(job).append(".group[").append(allocation / jobs)
+            .append("]\",\"NodeID\":\"").append(id(allocation % nodes))
+            .append("\",\"JobID\":\"service-").append(job)
+            .append("\",\"TaskGroup\":\"group\",\"DesiredStatus\":\"run\",\"DesiredDescription\":\"\"")
+            .append(",\"ClientStatus\":\"").append(CLIENT_STATUSES[(allocation + modifyIndex) % CLIENT_STATUSES.length])
+            .append("\",\"ClientDescription\":\"\"")
+            .append(",\"TaskStates\":{\"app\":{\"State\":\"running\",\"Failed\":false,\"Events\":[")
+            .append("{\"Type\":\"Received\",\"Time\":1475183830000000000},")
+            .append("{\"Type\":\"Started\",\"Time\":1475183831000000000}]}}")
+            .append(",\"CreateIndex\":1000,\"ModifyIndex\":").append(modifyIndex)
+            .append(",\"CreateTime\":").append(1475183830000000000L + allocation);
+        if (full) {
+            json.append(",\"Resources\":{\"CPU\":500,\"MemoryMB\":256,\"DiskMB\":300,\"IOPS\":0}")
+                .append(",\"TaskResources\":{\"app\":{\"CPU\":500,\"MemoryMB\":256,\"DiskMB\":0,\"IOPS\":0}}")
+                .append(",\"Metrics\":{\"NodesEvaluated\":").append(nodes)
+                .append(",\"NodesFiltered\":0,\"NodesExhausted\":0,\"AllocationTime\":1590406}")
+                .append(",\"Job\":");
+            job(json, job, true);
+        }
+        return json.append('}');
+    }
+
+    private static StringBuilder job(final StringBuilder json, final int job, final boolean full) {
+        json.append("{\"ID\":\"service-").append(job)
+            .append("\",\"Name\":\"service-").append(job)
+            .append("\",\"Type\":\"service\",\"Priority\":50,\"Status\":\"running\",\"StatusDescription\":\"\"")
+            .append(",\"CreateIndex\":").append(100 + job)
+            .append(",\"ModifyIndex\":").append(100 + job);
+        if (full) {
+            json.append(",\"Region\":\"global\",\"AllAtOnce\":false,\"Datacenters\":[\"dc1\",\"dc2\",\"dc3\"]")
+                .append(",\"Update\":{\"MaxParallel\":1,\"Stagger\":10000000000}")
+                .append(",\"TaskGroups\":[{\"Name\":\"group\",\"Count\":40,\"Tasks\":[{\"Name\":\"app\"")
+                .append(",\"Driver\":\"docker\",\"Config\":{\"image\":\"service-").append(job).append(":latest\"}")
+                .append(",\"Resources\":{\"CPU\":500,\"MemoryMB\":256,\"DiskMB\":0,\"IOPS\":0}}]")
+                .append(",\"RestartPolicy\":{\"Attempts\":10,\"Interval\":300000000000,\"Delay\":25000000000")
+                .append(",\"Mode\":\"delay\"}}]");
+        }
+        return json.append('}');
+    }
+
+    /**
+     * Frames as long as the client reads them when following, otherwise 16 of them.
+     */
+    private void streamLogs(final HttpExchange exchange, final boolean follow) throws IOException {
+        final StringBuilder lines = new StringBuilder(frameBytes + 100);
+        for (int i = 0; lines.length() < frameBytes; i++) {
+            lines.append("GET /health 200 ").append(i).append('\n');
+        }
+        lines.setLength(frameBytes);
+        final String data = Base64.getEncoder().encodeToString(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, 0);
+        final OutputStream out = exchange.getResponseBody();
+        try {
+            for (long frame = 0; follow || frame < 16; frame++) {
+                out.write(("{\"File\":\"alloc/logs/app.stdout.0\",\"Offset\":" + frame * frameBytes
+                    + ",\"Data\":\"" + data + "\"}\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (follow) {
+                    Thread.sleep(frameIntervalMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final long index, final byte[] json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("X-Nomad-Index", Long.toString(index));
+        exchange.getResponseHeaders().set("X-Nomad-KnownLeader", "true");
+        exchange.getResponseHeaders().set("X-Nomad-LastContact", "0");
+        exchange.sendResponseHeaders(200, json.length);
+        // the server copies each write whole, keep them small
+        for (int offset = 0; offset < json.length; offset += WRITE_SIZE) {
+            exchange.getResponseBody().write(json, offset, Math.min(WRITE_SIZE, json.length - offset));
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final long index, final String message)
+        throws IOException {
+        final byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.getResponseHeaders().set("X-Nomad-Index", Long.toString(index));
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /** UUID-like id carrying {@code n} in its first group. */
+    static String id(final int n) {
+        return String.format("%08x-%04x-4%03x-8%03x-%012x", n, n >>> 16 & 0xffff, n & 0xfff, n >>> 4 & 0xfff,
+            n * 0x9e3779b97f4aL & 0xffffffffffffL);
+    }
+
+    /** The number in an id of {@link #id(int)} below {@code bound}, or -1. */
+    private static int parseId(final String id, final int bound) {
+        if (id.length() != 36) {
+            return -1;
+        }
+        try {
+            final long n = Long.parseLong(id.substring(0, 8), 16);
+            return n < bound ? (int) n : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long waitNanos(final String wait) {
+        final Matcher matcher = wait == null ? null : DURATION.matcher(wait);
+        if (matcher == null || !matcher.matches()) {
+            // Nomad's default wait
+            return TimeUnit.MINUTES.toNanos(5);
+        }
+        final long amount = Long.parseLong(matcher.group(1));
+        final String unit = matcher.group(2) == null ? "s" : matcher.group(2);
+        return "ms".equals(unit) ? TimeUnit.MILLISECONDS.toNanos(amount)
+            : "m".equals(unit) ? TimeUnit.MINUTES.toNanos(amount) : TimeUnit.SECONDS.toNanos(amount);
+    }
+
+    private static Map<String, String> query(final String rawQuery) {
+        final Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                final int equals = pair.indexOf('=');
+                query.put(equals < 0 ? pair : pair.substring(0, equals), equals < 0 ? "" : pair.substring(equals + 1));
+            }
+        }
+        return query;
+    }
+
+    private static byte[] json(final CharSequence json) {
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Rendered {
+        final long index;
+
+        final byte[] body;
+
+        Rendered(final long index, final byte[] body) {
+            this.index = index;
+            this.body = body;
+        }
+    }
+}
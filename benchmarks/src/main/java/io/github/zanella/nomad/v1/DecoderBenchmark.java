@@ -0,0 +1,146 @@
+package io.github.zanella.nomad.v1;
+
+import io.github.zanella.nomad.benchmarks.Payloads;
+import io.github.zanella.nomad.v1.agent.AgentApi;
+import io.github.zanella.nomad.v1.allocations.AllocationApi;
+import io.github.zanella.nomad.v1.allocations.AllocationsApi;
+import io.github.zanella.nomad.v1.client.ClientApi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import feign.Response;
+
+/**
+ * Throughput of {@link JacksonDecoderExtended#decode} on the bodies of the heaviest answers, bound to the return
+ * types of their endpoints. It sits in the client's package to reach the decoder, with no transport or proxy in the
+ * way. Run with the GC profiler to see the bytes allocated per decode ({@code gc.alloc.rate.norm}):
+ * <p>
+ * {@code java -jar target/benchmarks.jar DecoderBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DecoderBenchmark {
+    private static final Map<String, Collection<String>> JSON =
+        Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+
+    private static final Map<String, Collection<String>> PLAIN =
+        Collections.singletonMap("Content-Type", Collections.singletonList("text/plain"));
+
+    /** Whether the mapper has the {@link ModelCodecs} or binds every model reflectively. */
+    @Param({ "true", "false" })
+    public boolean codecs;
+
+    @Param({ "5000" })
+    public int allocations;
+
+    @Param({ "20" })
+    public int tasks;
+
+    @Param({ "50" })
+    public int pids;
+
+    @Param({ "256" })
+    public int frames;
+
+    private JacksonDecoderExtended decoder;
+
+    private byte[] allocationsBody;
+
+    private byte[] allocationBody;
+
+    private byte[] allocationStatsBody;
+
+    private byte[] selfBody;
+
+    private byte[] logFramesBody;
+
+    private Type allocationsType;
+
+    private Type allocationType;
+
+    private Type allocationStatsType;
+
+    private Type selfType;
+
+    private Type logFramesType;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        decoder = new JacksonDecoderExtended(
+            codecs ? V1Client.customObjectMapper() : V1Client.reflectiveObjectMapper());
+
+        allocationsBody = bytes(Payloads.allocations(allocations));
+        allocationBody = bytes(Payloads.resource("allocation.json"));
+        allocationStatsBody = bytes(Payloads.allocationStats(tasks, pids));
+        selfBody = bytes(Payloads.resource("self.json"));
+        logFramesBody = bytes(Payloads.logFrames(frames, 4096));
+
+        allocationsType = returnType(AllocationsApi.class, "getAllocations");
+        allocationType = returnType(AllocationApi.class, "getAllocation");
+        allocationStatsType = returnType(ClientApi.class, "getAllocationStats");
+        selfType = returnType(AgentApi.class, "getSelf");
+        logFramesType = returnType(ClientApi.class, "streamAllocationLogs");
+    }
+
+    @Benchmark
+    public Object allocations() throws IOException {
+        return decoder.decode(Response.create(200, "OK", JSON, allocationsBody), allocationsType);
+    }
+
+    @Benchmark
+    public Object allocationWithJob() throws IOException {
+        return decoder.decode(Response.create(200, "OK", JSON, allocationBody), allocationType);
+    }
+
+    @Benchmark
+    public Object allocationStats() throws IOException {
+        return decoder.decode(Response.create(200, "OK", JSON, allocationStatsBody), allocationStatsType);
+    }
+
+    @Benchmark
+    public Object self() throws IOException {
+        return decoder.decode(Response.create(200, "OK", JSON, selfBody), selfType);
+    }
+
+    /** Frames bound eagerly, the body being in memory. */
+    @Benchmark
+    public Object logFrames() throws IOException {
+        return decoder.decode(Response.create(200, "OK", PLAIN, logFramesBody), logFramesType);
+    }
+
+    private static byte[] bytes(final String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Type returnType(final Class<?> api, final String name) throws NoSuchMethodException {
+        for (Method method : api.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method.getGenericReturnType();
+            }
+        }
+        throw new NoSuchMethodException(api.getName() + "." + name);
+    }
+}
@@ -0,0 +1,241 @@
+package io.github.zanella.nomad;
+
+import io.github.zanella.nomad.v1.common.models.AllocationSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Allocations indexed by node, job, task group, client status and desired status.
+ * <p>
+ * {@link #update(Collection)} takes the full list, as returned by {@code getAllocations()}, but only re-indexes the
+ * allocations whose {@code ModifyIndex} changed and drops the ones that disappeared, so refreshing costs one hash
+ * lookup per unchanged allocation. The index always holds the instances of the last list, so that it shares them
+ * with whoever keeps that list instead of pinning a second copy of the unchanged allocations. Lookups cost one hash
+ * lookup plus the size of the answer; {@link #select} scans only the smallest of the matching index entries.
+ */
+public final class AllocationIndex<A extends AllocationSummary> {
+    private final Map<String, A> byId = new HashMap<>();
+
+    private final Map<String, Set<String>> byNode = new HashMap<>();
+
+    private final Map<String, Set<String>> byJob = new HashMap<>();
+
+    private final Map<String, Set<String>> byTaskGroup = new HashMap<>();
+
+    private final Map<String, Set<String>> byClientStatus = new HashMap<>();
+
+    private final Map<String, Set<String>> byDesiredStatus = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the content with {@code allocations}, returning how many allocations were added, changed or removed.
+     */
+    public int update(Collection<? extends A> allocations) {
+        lock.writeLock().lock();
+        try {
+            int changes = 0;
+            final Set<String> present = new HashSet<>(allocations.size() * 4 / 3 + 1);
+            for (A allocation : allocations) {
+                present.add(allocation.getId());
+                if (put(allocation)) {
+                    changes++;
+                }
+            }
+            if (present.size() < byId.size()) {
+                for (String id : new ArrayList<>(byId.keySet())) {
+                    if (!present.contains(id)) {
+                        unindex(byId.remove(id));
+                        changes++;
+                    }
+                }
+            }
+            return changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces one allocation, returning whether it changed.
+     */
+    public boolean upsert(A allocation) {
+        lock.writeLock().lock();
+        try {
+            return put(allocation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String allocationId) {
+        lock.writeLock().lock();
+        try {
+            final A removed = byId.remove(allocationId);
+            unindex(removed);
+            return removed != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public A get(String allocationId) {
+        lock.readLock().lock();
+        try {
+            return byId.get(allocationId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<A> byNode(String nodeId) {
+        return lookup(byNode, nodeId);
+    }
+
+    public List<A> byJob(String jobId) {
+        return lookup(byJob, jobId);
+    }
+
+    public List<A> byTaskGroup(String jobId, String taskGroup) {
+        return lookup(byTaskGroup, taskGroupKey(jobId, taskGroup));
+    }
+
+    public List<A> byClientStatus(String clientStatus) {
+        return lookup(byClientStatus, clientStatus);
+    }
+
+    public List<A> byDesiredStatus(String desiredStatus) {
+        return lookup(byDesiredStatus, desiredStatus);
+    }
+
+    /**
+     * Allocations matching every given criterion, {@code null} matching anything; e.g. the running allocations of
+     * a job on a node are {@code select(jobId, null, nodeId, "running", null)}. A task group needs its job.
+     */
+    public List<A> select(String jobId, String taskGroup, String nodeId, String clientStatus, String desiredStatus) {
+        lock.readLock().lock();
+        try {
+            final List<Set<String>> candidates = new ArrayList<>(5);
+            if (jobId != null) {
+                candidates.add(taskGroup != null ? entry(byTaskGroup, taskGroupKey(jobId, taskGroup))
+                    : entry(byJob, jobId));
+            }
+            if (nodeId != null) {
+                candidates.add(entry(byNode, nodeId));
+            }
+            if (clientStatus != null) {
+                candidates.add(entry(byClientStatus, clientStatus));
+            }
+            if (desiredStatus != null) {
+                candidates.add(entry(byDesiredStatus, desiredStatus));
+            }
+
+            Collection<String> smallest = byId.keySet();
+            for (Set<String> ids : candidates) {
+                if (ids.size() < smallest.size()) {
+                    smallest = ids;
+                }
+            }
+
+            final List<A> result = new ArrayList<>();
+            for (String id : smallest) {
+                final A allocation = byId.get(id);
+                if ((jobId == null || jobId.equals(allocation.getJobId()))
+                    && (taskGroup == null || taskGroup.equals(allocation.getTaskGroup()))
+                    && (nodeId == null || nodeId.equals(allocation.getNodeId()))
+                    && (clientStatus == null || clientStatus.equals(allocation.getClientStatus()))
+                    && (desiredStatus == null || desiredStatus.equals(allocation.getDesiredStatus()))) {
+                    result.add(allocation);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean put(final A allocation) {
+        final A previous = byId.put(allocation.getId(), allocation);
+        if (previous != null && previous.getModifyIndex() != null
+            && Objects.equals(previous.getModifyIndex(), allocation.getModifyIndex())) {
+            // same content, the secondary indexes hold ids and stay as they are
+            return false;
+        }
+        unindex(previous);
+        add(byNode, allocation.getNodeId(), allocation);
+        add(byJob, allocation.getJobId(), allocation);
+        add(byTaskGroup, taskGroupKey(allocation.getJobId(), allocation.getTaskGroup()), allocation);
+        add(byClientStatus, allocation.getClientStatus(), allocation);
+        add(byDesiredStatus, allocation.getDesiredStatus(), allocation);
+        return true;
+    }
+
+    private void unindex(final A allocation) {
+        if (allocation != null) {
+            remove(byNode, allocation.getNodeId(), allocation);
+            remove(byJob, allocation.getJobId(), allocation);
+            remove(byTaskGroup, taskGroupKey(allocation.getJobId(), allocation.getTaskGroup()), allocation);
+            remove(byClientStatus, allocation.getClientStatus(), allocation);
+            remove(byDesiredStatus, allocation.getDesiredStatus(), allocation);
+        }
+    }
+
+    private List<A> lookup(final Map<String, Set<String>> index, final String key) {
+        lock.readLock().lock();
+        try {
+            final Set<String> ids = entry(index, key);
+            final List<A> result = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                result.add(byId.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> entry(final Map<String, Set<String>> index, final String key) {
+        final Set<String> ids = index.get(key);
+        return ids == null ? Collections.<String>emptySet() : ids;
+    }
+
+    private static void add(final Map<String, Set<String>> index, final String key,
+                            final AllocationSummary allocation) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(allocation.getId());
+        }
+    }
+
+    private static void remove(final Map<String, Set<String>> index, final String key,
+                               final AllocationSummary allocation) {
+        if (key != null) {
+            final Set<String> ids = index.get(key);
+            if (ids != null && ids.remove(allocation.getId()) && ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String taskGroupKey(final String jobId, final String taskGroup) {
+        return jobId == null || taskGroup == null ? null : jobId + '\u0000' + taskGroup;
+    }
+}
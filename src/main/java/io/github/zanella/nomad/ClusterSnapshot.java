@@ -0,0 +1,87 @@
+package io.github.zanella.nomad;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.xebia.jacksonlombok.JacksonLombokAnnotationIntrospector;
+
+import io.github.zanella.nomad.v1.ModelCodecs;
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.jobs.models.JobEvaluation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * On-disk form of a {@link ClusterStateCache}: every list with the Raft index it reflects, encoded with Smile,
+ * Jackson's binary JSON, under the same property names as the API. Reading binds the models with the same
+ * {@link ModelCodecs} as the client.
+ */
+@Data
+@NoArgsConstructor
+class ClusterSnapshot {
+    static final int VERSION = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper(new SmileFactory())
+        .setAnnotationIntrospector(new JacksonLombokAnnotationIntrospector())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .registerModule(new ModelCodecs());
+
+    @JsonProperty("Version") int version = VERSION;
+
+    @JsonProperty("JobsIndex") long jobsIndex;
+
+    @JsonProperty("Jobs") List<JobSummary> jobs;
+
+    @JsonProperty("NodesIndex") long nodesIndex;
+
+    @JsonProperty("Nodes") List<NodeSummary> nodes;
+
+    @JsonProperty("AllocationsIndex") long allocationsIndex;
+
+    @JsonProperty("Allocations") List<Allocation> allocations;
+
+    @JsonProperty("EvaluationsIndex") long evaluationsIndex;
+
+    @JsonProperty("Evaluations") List<JobEvaluation> evaluations;
+
+    /**
+     * Memory-maps and decodes the snapshot, returning {@code null} when it was written by another version.
+     */
+    static ClusterSnapshot read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            final ClusterSnapshot snapshot = MAPPER.readValue(
+                new ByteBufferBackedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())),
+                ClusterSnapshot.class);
+            return snapshot != null && snapshot.version == VERSION ? snapshot : null;
+        }
+    }
+
+    /**
+     * Writes the snapshot next to {@code path} and moves it in place, so readers never see a partial file.
+     */
+    void write(final Path path) throws IOException {
+        final Path absolute = path.toAbsolutePath();
+        final Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                MAPPER.writeValue(out, this);
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
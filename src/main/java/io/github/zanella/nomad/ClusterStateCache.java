@@ -0,0 +1,255 @@
+package io.github.zanella.nomad;
+
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.common.models.QueryResult;
+import io.github.zanella.nomad.v1.jobs.models.JobEvaluation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory replica of the jobs, nodes, allocations and evaluations of a cluster, kept current with blocking
+ * queries so that any number of readers cost the servers one long-poll per list.
+ * <p>
+ * Reads return the last received list without any I/O. The queries wait {@link #DEFAULT_WAIT} by default, which
+ * stays under the default 60 seconds read timeout; a longer wait needs a longer read timeout on the client. Failed
+ * queries are retried with exponential backoff.
+ */
+public final class ClusterStateCache implements Closeable {
+    public static final String DEFAULT_WAIT = "30s";
+
+    public static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    public final Replica<JobSummary> jobs;
+
+    public final Replica<NodeSummary> nodes;
+
+    public final Replica<Allocation> allocations;
+
+    public final Replica<JobEvaluation> evaluations;
+
+    /**
+     * The replicated allocations, indexed by node, job, task group and status.
+     */
+    public final AllocationIndex<Allocation> allocationIndex = new AllocationIndex<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    public ClusterStateCache(AsyncV1Client client) {
+        this(client, DEFAULT_WAIT);
+    }
+
+    public ClusterStateCache(AsyncV1Client client, String wait) {
+        this(client, wait, null);
+    }
+
+    /**
+     * Starts from the snapshot saved at {@code snapshot} with {@link #saveSnapshot(Path)}, if there is a readable
+     * one: the replicas are loaded right away and the blocking queries resume from the snapshot's indexes, so the
+     * servers only send the lists that changed since.
+     */
+    public ClusterStateCache(AsyncV1Client client, String wait, Path snapshot) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "nomad-cluster-state");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.jobs = new Replica<>(index -> client.jobs.call(api -> api.getJobs(index, wait)));
+        this.nodes = new Replica<>(index -> client.nodes.call(api -> api.getNodes(index, wait)));
+        this.allocations = new Replica<>(index -> client.allocations.call(api -> api.getAllocations(index, wait)));
+        this.evaluations = new Replica<>(index -> client.evaluations.call(api -> api.getEvaluations(index, wait)));
+
+        allocations.addListener(allocationIndex::update);
+
+        if (snapshot != null && Files.isRegularFile(snapshot)) {
+            restore(snapshot);
+        }
+
+        jobs.poll();
+        nodes.poll();
+        allocations.poll();
+        evaluations.poll();
+    }
+
+    /**
+     * Waits until every list has been loaded once.
+     */
+    public boolean awaitLoaded(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Replica<?> replica : new Replica<?>[] { jobs, nodes, allocations, evaluations }) {
+            if (!replica.awaitLoaded(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the current lists and their indexes to {@code path}, replacing it atomically.
+     */
+    public void saveSnapshot(Path path) throws IOException {
+        final ClusterSnapshot snapshot = new ClusterSnapshot();
+        snapshot.setJobsIndex(jobs.getIndex());
+        snapshot.setJobs(jobs.get());
+        snapshot.setNodesIndex(nodes.getIndex());
+        snapshot.setNodes(nodes.get());
+        snapshot.setAllocationsIndex(allocations.getIndex());
+        snapshot.setAllocations(allocations.get());
+        snapshot.setEvaluationsIndex(evaluations.getIndex());
+        snapshot.setEvaluations(evaluations.get());
+        snapshot.write(path);
+    }
+
+    private void restore(final Path path) {
+        final ClusterSnapshot snapshot;
+        try {
+            snapshot = ClusterSnapshot.read(path);
+        } catch (IOException e) {
+            // unreadable, start cold
+            return;
+        }
+        if (snapshot != null) {
+            jobs.restore(snapshot.getJobs(), snapshot.getJobsIndex());
+            nodes.restore(snapshot.getNodes(), snapshot.getNodesIndex());
+            allocations.restore(snapshot.getAllocations(), snapshot.getAllocationsIndex());
+            evaluations.restore(snapshot.getEvaluations(), snapshot.getEvaluationsIndex());
+        }
+    }
+
+    /**
+     * Stops the queries; the replicas keep serving their last lists.
+     */
+    @Override
+    public void close() {
+        jobs.stop();
+        nodes.stop();
+        allocations.stop();
+        evaluations.stop();
+        scheduler.shutdownNow();
+    }
+
+    public final class Replica<T> {
+        private final LongFunction<CompletableFuture<QueryResult<List<T>>>> query;
+
+        private final List<Consumer<? super List<T>>> listeners = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch loaded = new CountDownLatch(1);
+
+        private volatile List<T> values = Collections.emptyList();
+
+        private volatile long index;
+
+        private volatile boolean stopped;
+
+        private volatile CompletableFuture<?> pending;
+
+        private long backoffMillis;
+
+        private Replica(final LongFunction<CompletableFuture<QueryResult<List<T>>>> query) {
+            this.query = query;
+        }
+
+        /**
+         * The last received list, unmodifiable.
+         */
+        public List<T> get() {
+            return values;
+        }
+
+        /**
+         * Raft index the list reflects, 0 until it is loaded.
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        public boolean awaitLoaded(long timeout, TimeUnit unit) throws InterruptedException {
+            return loaded.await(timeout, unit);
+        }
+
+        /**
+         * Called with the new list every time it changes, on the thread that received it.
+         */
+        public void addListener(Consumer<? super List<T>> listener) {
+            listeners.add(listener);
+        }
+
+        private void poll() {
+            if (stopped) {
+                return;
+            }
+            final CompletableFuture<QueryResult<List<T>>> call;
+            try {
+                // Nomad does not block on index 0
+                call = query.apply(Math.max(1, index));
+            } catch (RuntimeException e) {
+                retryLater();
+                return;
+            }
+            pending = call;
+            call.whenComplete((result, error) -> {
+                if (stopped) {
+                    return;
+                }
+                if (error != null) {
+                    retryLater();
+                    return;
+                }
+                backoffMillis = 0;
+                // the index going backwards means the servers' state was reset, take it as is
+                if (result.getIndex() != index || loaded.getCount() > 0) {
+                    update(result);
+                }
+                poll();
+            });
+        }
+
+        private void update(final QueryResult<List<T>> result) {
+            restore(result.getValue(), result.getIndex());
+        }
+
+        private void restore(final List<T> list, final long listIndex) {
+            values = list == null ? Collections.<T>emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+            index = listIndex;
+            loaded.countDown();
+            for (Consumer<? super List<T>> listener : listeners) {
+                listener.accept(values);
+            }
+        }
+
+        private void retryLater() {
+            backoffMillis = backoffMillis == 0 ? 250 : Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            try {
+                scheduler.schedule(this::poll, backoffMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            final CompletableFuture<?> call = pending;
+            if (call != null) {
+                call.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.zanella.nomad;
+
+import io.github.zanella.nomad.v1.nodes.models.NodeInfo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of the clients returned by {@link NomadClient#node(String)}, keyed by node ID.
+ * <p>
+ * An entry is trusted without asking the servers while it is younger than {@code revalidateAfter} and, when the
+ * caller knows it, while the node's {@code ModifyIndex} is unchanged. Otherwise the node is fetched again and its
+ * client is replaced when the node moved to another {@code HTTPAddr}.
+ */
+public final class NodeClientCache {
+    public static final int DEFAULT_MAX_NODES = 4096;
+
+    public static final long DEFAULT_REVALIDATE_AFTER_SECONDS = 60;
+
+    private final int maxNodes;
+
+    private final long revalidateAfterNanos;
+
+    private final Map<String, Entry> entries;
+
+    public NodeClientCache() {
+        this(DEFAULT_MAX_NODES, DEFAULT_REVALIDATE_AFTER_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public NodeClientCache(final int maxNodes, final long revalidateAfter, final TimeUnit unit) {
+        this.maxNodes = maxNodes;
+        this.revalidateAfterNanos = unit.toNanos(revalidateAfter);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > NodeClientCache.this.maxNodes;
+            }
+        };
+    }
+
+    /**
+     * @param modifyIndex the node's current {@code ModifyIndex} if the caller knows it, otherwise {@code null}
+     * @param fetchNode looks the node up, may return {@code null}
+     * @param newClient builds a client for a node, may return {@code null} when the node is not reachable
+     */
+    NomadClient get(final String nodeId, final Integer modifyIndex, final Function<String, NodeInfo> fetchNode,
+                    final Function<NodeInfo, NomadClient> newClient) {
+        final long now = System.nanoTime();
+
+        final Entry cached;
+        synchronized (entries) {
+            cached = entries.get(nodeId);
+        }
+        if (cached != null && now - cached.validatedAt < revalidateAfterNanos
+            && (modifyIndex == null || modifyIndex.equals(cached.modifyIndex))) {
+            return cached.client;
+        }
+
+        final NodeInfo node = fetchNode.apply(nodeId);
+        if (node == null) {
+            invalidate(nodeId);
+            return null;
+        }
+
+        final NomadClient client = cached != null && cached.httpAddr.equals(node.getHttpAddr())
+            ? cached.client
+            : newClient.apply(node);
+        if (client == null) {
+            invalidate(nodeId);
+            return null;
+        }
+
+        synchronized (entries) {
+            entries.put(nodeId, new Entry(node.getModifyIndex(), node.getHttpAddr(), client, now));
+        }
+        return client;
+    }
+
+    public void invalidate(final String nodeId) {
+        synchronized (entries) {
+            entries.remove(nodeId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry {
+        final Integer modifyIndex;
+
+        final String httpAddr;
+
+        final NomadClient client;
+
+        final long validatedAt;
+
+        Entry(final Integer modifyIndex, final String httpAddr, final NomadClient client, final long validatedAt) {
+            this.modifyIndex = modifyIndex;
+            this.httpAddr = httpAddr;
+            this.client = client;
+            this.validatedAt = validatedAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.zanella.nomad;
 
 import io.github.zanella.nomad.v1.V1Client;
 import io.github.zanella.nomad.v1.nodes.models.NodeInfo;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -9,6 +10,8 @@ import java.util.regex.Pattern;
 public class NomadClient {
     public final V1Client v1;
 
+    private final NodeClientCache nodeClients;
+
     private static final String DEFAULT_HOST = "localhost";
 
     private static final Pattern HOST_PATTERN = Pattern.compile("\\s*(.*?):(\\d+)\\s*");
@@ -20,27 +23,69 @@ public class NomadClient {
     public NomadClient(final String agentHost) { this(agentHost, DEFAULT_PORT); }
 
     public NomadClient(final String agentHost, final int agentPort) {
-        String agentHostWithScheme = agentHost;
+        this(builder(agentHost, agentPort).build());
+    }
+
+    public NomadClient(final V1Client v1) {
+        this(v1, new NodeClientCache());
+    }
+
+    public NomadClient(final V1Client v1, final NodeClientCache nodeClients) {
+        this.v1 = v1;
+        this.nodeClients = nodeClients;
+    }
+
+    /**
+     * Starting point for a customized client, e.g. {@code new NomadClient(NomadClient.builder(host).transport(t).build())}
+     */
+    public static V1Client.Builder builder(final String agentHost) { return builder(agentHost, DEFAULT_PORT); }
+
+    public static V1Client.Builder builder(final String agentHost, final int agentPort) {
+        return V1Client.builder(withScheme(agentHost, false), agentPort);
+    }
 
+    private static String withScheme(final String agentHost, final boolean tls) {
         // check that agentHost has scheme or not
         final String agentHostLowercase = agentHost.toLowerCase();
         if (!agentHostLowercase.startsWith("https://") && !agentHostLowercase.startsWith("http://")) {
             // no scheme in host, use default 'http'
-            agentHostWithScheme = "http://" + agentHost;
+            return (tls ? "https://" : "http://") + agentHost;
         }
-
-        v1 = new V1Client(agentHostWithScheme, agentPort);
+        return agentHost;
     }
 
+    /**
+     * Client talking to the agent of the given node, sharing this client's transport and codecs.
+     * Clients are cached per node, see {@link NodeClientCache}.
+     */
     public NomadClient node(String nodeId) {
-        final NodeInfo node = v1.node.getNode(nodeId);
-        if (node != null) {
+        return node(nodeId, null);
+    }
+
+    /**
+     * Same as {@link #node(String)}, skipping the node lookup while the summary's {@code ModifyIndex} is the
+     * cached one.
+     */
+    public NomadClient node(NodeSummary nodeSummary) {
+        return node(nodeSummary.getId(), nodeSummary.getModifyIndex());
+    }
+
+    private NomadClient node(final String nodeId, final Integer modifyIndex) {
+        final NomadClient nodeClient = nodeClients.get(nodeId, modifyIndex, v1.node::getNode, this::newNodeClient);
+
+        return nodeClient != null ? nodeClient : this;
+    }
+
+    private NomadClient newNodeClient(final NodeInfo node) {
+        if (node.getHttpAddr() != null) {
             final Matcher matcher = HOST_PATTERN.matcher(node.getHttpAddr());
             if (matcher.matches()) {
-                return new NomadClient(matcher.group(1), Integer.parseInt(matcher.group(2)));
+                final V1Client nodeV1 =
+                    v1.withAgent(withScheme(matcher.group(1), node.isTlsEnabled()), Integer.parseInt(matcher.group(2)));
+                return new NomadClient(nodeV1, nodeClients);
             }
         }
 
-        return this;
+        return null;
     }
 }
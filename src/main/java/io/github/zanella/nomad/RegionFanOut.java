@@ -0,0 +1,169 @@
+package io.github.zanella.nomad;
+
+import io.github.zanella.nomad.v1.AsyncApi;
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.allocations.AllocationsApi;
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.evaluations.EvaluationsApi;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.jobs.models.JobEvaluation;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.NodesApi;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+import io.github.zanella.nomad.v1.transport.Transports;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Queries a list endpoint in several regions at once, e.g. {@code fanOut.jobs()} for the jobs of every region known
+ * to the agent, instead of one {@code *ForRegion} call after the other.
+ * <p>
+ * Each region has until the deadline to answer; a region that fails or is late is reported in the
+ * {@code failures} of the {@link RegionalResult} and its exchange is aborted, without failing the others. The
+ * returned future only fails when the regions themselves cannot be listed.
+ */
+public final class RegionFanOut {
+    public static final long DEFAULT_TIMEOUT_SECONDS = 10;
+
+    private final AsyncV1Client client;
+
+    private final long timeoutNanos;
+
+    public RegionFanOut(AsyncV1Client client) {
+        this(client, DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param timeout deadline of each region's answer, counted from the start of the fan-out
+     */
+    public RegionFanOut(AsyncV1Client client, long timeout, TimeUnit unit) {
+        this.client = client;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    public CompletableFuture<RegionalResult<JobSummary>> jobs() {
+        return query(c -> c.jobs, JobsApi::getJobsForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<JobSummary>> jobs(Collection<String> regions) {
+        return query(regions, c -> c.jobs, JobsApi::getJobsForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<NodeSummary>> nodes() {
+        return query(c -> c.nodes, NodesApi::getNodesForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<NodeSummary>> nodes(Collection<String> regions) {
+        return query(regions, c -> c.nodes, NodesApi::getNodesForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<Allocation>> allocations() {
+        return query(c -> c.allocations, AllocationsApi::getAllocationsForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<Allocation>> allocations(Collection<String> regions) {
+        return query(regions, c -> c.allocations, AllocationsApi::getAllocationsForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<JobEvaluation>> evaluations() {
+        return query(c -> c.evaluations, EvaluationsApi::getEvaluationsForRegion);
+    }
+
+    public CompletableFuture<RegionalResult<JobEvaluation>> evaluations(Collection<String> regions) {
+        return query(regions, c -> c.evaluations, EvaluationsApi::getEvaluationsForRegion);
+    }
+
+    /**
+     * Runs {@code endpoint} in every region listed by {@link RegionsApi#getRegions()}.
+     */
+    public <A, T> CompletableFuture<RegionalResult<T>> query(final Function<AsyncV1Client, AsyncApi<A>> api,
+                                                            final BiFunction<A, String, List<T>> endpoint) {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        final CompletableFuture<List<String>> regions = withDeadline(client.regions.call(RegionsApi::getRegions),
+            deadline);
+        final AtomicReference<CompletableFuture<RegionalResult<T>>> gathering = new AtomicReference<>();
+        final CompletableFuture<RegionalResult<T>> result = regions.thenCompose(found -> {
+            gathering.set(fanOut(found, api, endpoint, deadline));
+            return gathering.get();
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                regions.cancel(true);
+                if (gathering.get() != null) {
+                    gathering.get().cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs {@code endpoint} in each of {@code regions}, e.g.
+     * {@code query(regions, c -> c.jobs, JobsApi::getJobsForRegion)}.
+     */
+    public <A, T> CompletableFuture<RegionalResult<T>> query(final Collection<String> regions,
+                                                            final Function<AsyncV1Client, AsyncApi<A>> api,
+                                                            final BiFunction<A, String, List<T>> endpoint) {
+        return fanOut(regions, api, endpoint, System.nanoTime() + timeoutNanos);
+    }
+
+    private <A, T> CompletableFuture<RegionalResult<T>> fanOut(final Collection<String> regions,
+                                                              final Function<AsyncV1Client, AsyncApi<A>> api,
+                                                              final BiFunction<A, String, List<T>> endpoint,
+                                                              final long deadline) {
+        final List<String> names = new ArrayList<>(regions);
+        final List<CompletableFuture<List<T>>> calls = new ArrayList<>(names.size());
+        for (String region : names) {
+            calls.add(withDeadline(api.apply(client).call(a -> endpoint.apply(a, region)), deadline));
+        }
+
+        final CompletableFuture<RegionalResult<T>> result = CompletableFuture
+            .allOf(calls.stream().map(call -> call.handle((value, error) -> null)).toArray(CompletableFuture[]::new))
+            .thenApply(done -> {
+                final RegionalResult<T> gathered = new RegionalResult<>();
+                for (int i = 0; i < names.size(); i++) {
+                    final CompletableFuture<List<T>> call = calls.get(i);
+                    try {
+                        // a null body, or a 404 mapped to null, is an empty answer
+                        final List<T> values = call.join();
+                        gathered.getValues().put(names.get(i), values != null ? values : Collections.<T>emptyList());
+                    } catch (CancellationException e) {
+                        gathered.getFailures().put(names.get(i), new TimeoutException(
+                            "region " + names.get(i) + " did not answer in time"));
+                    } catch (CompletionException e) {
+                        gathered.getFailures().put(names.get(i), e.getCause());
+                    }
+                }
+                return gathered;
+            });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                calls.forEach(call -> call.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Cancels {@code call}, which aborts its exchange, if it is still running at {@code deadline}.
+     */
+    private static <T> CompletableFuture<T> withDeadline(final CompletableFuture<T> call, final long deadline) {
+        final ScheduledFuture<?> timer = Transports.scheduler()
+            .schedule(() -> call.cancel(true), deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        call.whenComplete((value, error) -> timer.cancel(false));
+        return call;
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.zanella.nomad;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists gathered from several regions by {@link RegionFanOut}: the answer of each region that answered in time, and
+ * the failure of each one that did not.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class RegionalResult<T> {
+    /** Answers by region, in the order the regions were queried. */
+    Map<String, List<T>> values = new LinkedHashMap<>();
+
+    /** Failures by region, e.g. a {@link java.util.concurrent.TimeoutException} past the deadline. */
+    Map<String, Throwable> failures = new LinkedHashMap<>();
+
+    /** Whether every queried region answered. */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /** All the answers, each tagged with the region it came from; a region without a list contributes nothing. */
+    public List<Item<T>> merged() {
+        final List<Item<T>> merged = new ArrayList<>();
+        values.forEach((region, list) -> {
+            if (list != null) {
+                list.forEach(value -> merged.add(new Item<>(region, value)));
+            }
+        });
+        return merged;
+    }
+
+    @Data
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    public static class Item<T> {
+        String region;
+
+        T value;
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.zanella.nomad.v1;
+
+import io.github.zanella.nomad.v1.metrics.MetricsListener;
+import io.github.zanella.nomad.v1.transport.Transport;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+
+/**
+ * Non-blocking access to the endpoints of one API interface, e.g.
+ * {@code asyncClient.jobs.call(JobsApi::getJobs)} or {@code asyncClient.job.call(api -> api.getJob(jobId))}.
+ * <p>
+ * The endpoint function is applied to a recording proxy on the calling thread, which only builds the request;
+ * the exchange runs on the {@link Transport} and the response is decoded on the executor. Cancelling the returned
+ * future aborts the HTTP exchange. Endpoints returning a {@link Response} get it as Feign hands it over: buffered
+ * up to {@value #MAX_BUFFERED_BODY} bytes, otherwise unbuffered and left for the caller to close.
+ */
+public final class AsyncApi<A> {
+    /** Largest body of a {@link Response} result read into memory, as Feign does for the blocking calls. */
+    static final long MAX_BUFFERED_BODY = 8192;
+
+    private final Class<A> type;
+
+    private final A recorder;
+
+    private final Transport transport;
+
+    private final Request.Options options;
+
+    private final Decoder decoder;
+
+    private final ErrorDecoder errorDecoder;
+
+    private final Executor executor;
+
+    private final MetricsListener metrics;
+
+    AsyncApi(final Class<A> type, final A recorder, final Transport transport, final Request.Options options,
+             final Decoder decoder, final ErrorDecoder errorDecoder, final Executor executor,
+             final MetricsListener metrics) {
+        this.type = type;
+        this.recorder = recorder;
+        this.transport = transport;
+        this.options = options;
+        this.decoder = decoder;
+        this.errorDecoder = errorDecoder;
+        this.executor = executor;
+        this.metrics = metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> call(final Function<A, T> endpoint) {
+        final RequestCapture.Captured captured = RequestCapture.capture(() -> endpoint.apply(recorder));
+        final Request request = captured.request;
+        final Method method = captured.method;
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Metering.Call call = metrics == null ? null : new Metering.Call(method);
+        final CompletableFuture<Response> exchange = call == null ? transport.executeAsync(request, options)
+            : call.sending(() -> transport.executeAsync(request, options));
+
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(executing(request, error));
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    if (result.isDone()) {
+                        Util.ensureClosed(response.body());
+                        return;
+                    }
+                    try {
+                        result.complete((T) decode(Feign.configKey(type, method), method.getGenericReturnType(), response,
+                            call));
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                Util.ensureClosed(response.body());
+                result.completeExceptionally(e);
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled() && !exchange.cancel(true)) {
+                // already answered, stop a decode that may still be reading the body
+                exchange.thenAccept(response -> Util.ensureClosed(response.body()));
+            }
+            if (call != null) {
+                call.finished(metrics, error);
+            }
+        });
+
+        return result;
+    }
+
+    private Object decode(final String configKey, final Type returnType, final Response response,
+                          final Metering.Call call) throws Exception {
+        boolean handedOver = false;
+        try {
+            if (Response.class == returnType) {
+                final Integer length = response.body() == null ? null : response.body().length();
+                if (response.body() == null || length == null || length > MAX_BUFFERED_BODY) {
+                    // a file or a log, possibly larger than the heap: the caller reads and closes it
+                    handedOver = true;
+                    return response;
+                }
+                final byte[] bodyData = Util.toByteArray(response.body().asInputStream());
+                return Response.create(response.status(), response.reason(), response.headers(), bodyData);
+            }
+
+            if (response.status() >= 200 && response.status() < 300) {
+                if (void.class == returnType) {
+                    return null;
+                }
+                try {
+                    return Metering.timed(call, decoder, response, returnType);
+                } catch (FeignException e) {
+                    throw e;
+                } catch (IOException | RuntimeException e) {
+                    throw new DecodeException(e.getMessage(), e);
+                }
+            }
+
+            throw errorDecoder.decode(configKey, response);
+        } finally {
+            if (!handedOver) {
+                Util.ensureClosed(response.body());
+            }
+        }
+    }
+
+    private static Throwable executing(final Request request, final Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IOException) {
+            return new RetryableException(
+                String.format("%s executing %s %s", cause.getMessage(), request.method(), request.url()), cause, null);
+        }
+        return cause instanceof CancellationException ? cause : error;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.zanella.nomad.v1;
+
+import io.github.zanella.nomad.v1.agent.AgentApi;
+import io.github.zanella.nomad.v1.allocations.AllocationApi;
+import io.github.zanella.nomad.v1.allocations.AllocationsApi;
+import io.github.zanella.nomad.v1.client.ClientApi;
+import io.github.zanella.nomad.v1.evaluations.EvaluationApi;
+import io.github.zanella.nomad.v1.evaluations.EvaluationsApi;
+import io.github.zanella.nomad.v1.jobs.JobApi;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.nodes.NodeApi;
+import io.github.zanella.nomad.v1.nodes.NodesApi;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+import io.github.zanella.nomad.v1.status.StatusApi;
+import io.github.zanella.nomad.v1.transport.Transport;
+import io.github.zanella.nomad.v1.transport.Transports;
+import io.github.zanella.nomad.v1.transport.UrlConnectionTransport;
+
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+
+import feign.Feign;
+import feign.Logger;
+import feign.Request;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+
+/**
+ * Same endpoints as {@link V1Client}, answered with {@link java.util.concurrent.CompletableFuture}s.
+ * <p>
+ * Unless given a transport, exchanges run on a {@link UrlConnectionTransport} that blocks an executor thread for
+ * the whole of each one: N calls in flight hold N threads. See {@link V1Client.Builder#buildAsync(Executor)}.
+ */
+public final class AsyncV1Client {
+    @Getter
+    private final String agentAddress;
+
+    public final AsyncApi<StatusApi> status;
+    public final AsyncApi<RegionsApi> regions;
+
+    public final AsyncApi<NodesApi> nodes;
+    public final AsyncApi<NodeApi> node;
+
+    public final AsyncApi<JobsApi> jobs;
+    public final AsyncApi<JobApi> job;
+
+    public final AsyncApi<AllocationsApi> allocations;
+    public final AsyncApi<AllocationApi> allocation;
+
+    public final AsyncApi<EvaluationsApi> evaluations;
+    public final AsyncApi<EvaluationApi> evaluation;
+
+    public final AsyncApi<AgentApi> agent;
+
+    public final AsyncApi<ClientApi> client;
+
+    private final Transport transport;
+
+    private final Request.Options options;
+
+    private final Decoder decoder;
+
+    private final ErrorDecoder errorDecoder;
+
+    private final Executor executor;
+
+    public AsyncV1Client(String agentHost, int agentPort) {
+        this(agentHost, agentPort, Transports.defaultExecutor());
+    }
+
+    public AsyncV1Client(String agentHost, int agentPort, Executor executor) {
+        this(V1Client.builder(agentHost, agentPort), executor);
+    }
+
+    public AsyncV1Client(String agentHost, int agentPort, Executor executor, Transport transport) {
+        this(V1Client.builder(agentHost, agentPort).transport(transport), executor);
+    }
+
+    AsyncV1Client(final V1Client.Builder builder, final Executor executor) {
+        this.agentAddress = builder.agentAddress();
+        this.executor = executor;
+        this.transport = new DetachableBodies(builder.bodies(builder.transport(executor)));
+        this.options = builder.options;
+
+        this.decoder = builder.decoder();
+        this.errorDecoder = new ErrorDecoder.Default();
+
+        final Feign recorders = Feign.builder()
+                .client(RequestCapture.CLIENT)
+                .invocationHandlerFactory(RequestCapture.INVOCATION_HANDLER_FACTORY)
+                .encoder(builder.encoder())
+                .logger(new Logger.ErrorLogger())
+                .build();
+
+        this.status = api(builder, recorders, StatusApi.class);
+
+        this.regions = api(builder, recorders, RegionsApi.class);
+
+        this.nodes = api(builder, recorders, NodesApi.class);
+
+        this.node = api(builder, recorders, NodeApi.class);
+
+        this.jobs = api(builder, recorders, JobsApi.class);
+
+        this.job = api(builder, recorders, JobApi.class);
+
+        this.allocations = api(builder, recorders, AllocationsApi.class);
+
+        this.allocation = api(builder, recorders, AllocationApi.class);
+
+        this.evaluations = api(builder, recorders, EvaluationsApi.class);
+
+        this.evaluation = api(builder, recorders, EvaluationApi.class);
+
+        this.agent = api(builder, recorders, AgentApi.class);
+
+        this.client = api(builder, recorders, ClientApi.class);
+    }
+
+    private <A> AsyncApi<A> api(final V1Client.Builder builder, final Feign recorders, final Class<A> type) {
+        return new AsyncApi<>(type, builder.target(recorders, type), transport, options, decoder,
+            errorDecoder, executor, builder.metrics);
+    }
+}
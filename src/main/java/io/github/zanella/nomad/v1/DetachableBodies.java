@@ -0,0 +1,99 @@
+package io.github.zanella.nomad.v1;
+
+import io.github.zanella.nomad.v1.transport.Transport;
+import io.github.zanella.nomad.v1.transport.Transports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+
+import feign.Request;
+import feign.Response;
+
+/**
+ * Wraps response bodies so a decoder can take them over: Feign closes the body as soon as {@code decode} returns,
+ * which would break results that keep reading from it, like lazily decoded streams.
+ */
+final class DetachableBodies implements Transport {
+    private final Transport delegate;
+
+    DetachableBodies(final Transport delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        return wrap(delegate.execute(request, options));
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        final CompletableFuture<Response> exchange = delegate.executeAsync(request, options);
+        return Transports.cancelling(exchange.thenApply(DetachableBodies::wrap), exchange);
+    }
+
+    /**
+     * Transfers ownership of the body to the caller, who must close the returned handle; closing the body through
+     * the response becomes a no-op. Returns {@code null} when the response was not produced by this transport.
+     */
+    static Closeable detach(final Response response) {
+        if (response.body() instanceof DetachableBody) {
+            final DetachableBody body = (DetachableBody) response.body();
+            body.detached = true;
+            return body.delegate;
+        }
+        return null;
+    }
+
+    private static Response wrap(final Response response) {
+        if (response.body() == null) {
+            return response;
+        }
+        return Response.create(response.status(), response.reason(), response.headers(),
+            new DetachableBody(response.body()));
+    }
+
+    private static final class DetachableBody implements Response.Body {
+        final Response.Body delegate;
+
+        volatile boolean detached;
+
+        DetachableBody(final Response.Body delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return delegate.asInputStream();
+        }
+
+        @Override
+        public Reader asReader() throws IOException {
+            return delegate.asReader();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!detached) {
+                delegate.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.zanella.nomad.v1;
+
+import static feign.Util.CONTENT_ENCODING;
+import static feign.Util.CONTENT_LENGTH;
+import static feign.Util.ENCODING_GZIP;
+
+import io.github.zanella.nomad.v1.transport.Transport;
+import io.github.zanella.nomad.v1.transport.Transports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+import feign.Request;
+import feign.Response;
+
+/**
+ * Asks the agent for gzip compressed responses and inflates them while they are read, so decoders, streams and the
+ * endpoints returning the raw {@link Response} all see the plain body.
+ * <p>
+ * Requests that already say which encodings they accept are left as they are. Transports that inflate gzip on
+ * their own, like OkHttp, only do so for the requests they compressed themselves, so they pass these responses
+ * through compressed.
+ */
+final class GzipBodies implements Transport {
+    static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    private final Transport delegate;
+
+    GzipBodies(final Transport delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        return inflate(delegate.execute(acceptingGzip(request), options));
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        final CompletableFuture<Response> exchange = delegate.executeAsync(acceptingGzip(request), options);
+        return Transports.cancelling(exchange.thenApply(GzipBodies::inflate), exchange);
+    }
+
+    private static Request acceptingGzip(final Request request) {
+        for (String name : request.headers().keySet()) {
+            if (ACCEPT_ENCODING.equalsIgnoreCase(name)) {
+                return request;
+            }
+        }
+        final Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(ACCEPT_ENCODING, Collections.singletonList(ENCODING_GZIP));
+        return Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+    }
+
+    private static Response inflate(final Response response) {
+        final Response.Body body = response.body();
+        if (body == null || (body.length() != null && body.length() == 0) || !isGzip(response.headers())) {
+            return response;
+        }
+        final Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        response.headers().forEach((name, values) -> {
+            if (!CONTENT_ENCODING.equalsIgnoreCase(name) && !CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, values);
+            }
+        });
+        return Response.create(response.status(), response.reason(), headers, new GzipBody(body));
+    }
+
+    private static boolean isGzip(final Map<String, Collection<String>> headers) {
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (CONTENT_ENCODING.equalsIgnoreCase(header.getKey())) {
+                return header.getValue().stream().anyMatch(ENCODING_GZIP::equalsIgnoreCase);
+            }
+        }
+        return false;
+    }
+
+    private static final class GzipBody implements Response.Body {
+        private final Response.Body delegate;
+
+        private InputStream inflating;
+
+        GzipBody(final Response.Body delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Integer length() {
+            return null;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public synchronized InputStream asInputStream() throws IOException {
+            if (inflating == null) {
+                inflating = new GZIPInputStream(delegate.asInputStream(), 8192);
+            }
+            return inflating;
+        }
+
+        @Override
+        public Reader asReader() throws IOException {
+            return new InputStreamReader(asInputStream(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                if (inflating != null) {
+                    inflating.close();
+                }
+            } finally {
+                delegate.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "gzip " + delegate;
+        }
+    }
+}
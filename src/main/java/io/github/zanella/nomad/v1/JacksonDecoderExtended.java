@@ -0,0 +1,163 @@
+package io.github.zanella.nomad.v1;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.github.zanella.nomad.v1.client.models.LogStream;
+import io.github.zanella.nomad.v1.common.models.QueryResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.jackson.JacksonDecoder;
+
+final class JacksonDecoderExtended extends JacksonDecoder {
+
+    private final ObjectMapper mapper;
+
+    private final JsonFactory jsonFactory;
+
+    private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonDecoderExtended(ObjectMapper mapper) {
+        super(mapper);
+
+        this.mapper = mapper;
+        this.jsonFactory = mapper.getFactory();
+    }
+
+    @Override
+    public Object decode(final Response response, final Type type) throws IOException {
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Stream.class) {
+            return stream(response, ((ParameterizedType) type).getActualTypeArguments()[0]);
+        }
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == QueryResult.class) {
+            return new QueryResult<>(decode(response, ((ParameterizedType) type).getActualTypeArguments()[0]),
+                longHeader(response, "X-Nomad-Index"),
+                Boolean.parseBoolean(header(response, "X-Nomad-KnownLeader")),
+                longHeader(response, "X-Nomad-LastContact"));
+        }
+
+        if (response.headers().get("Content-Type").stream()
+            .anyMatch(header -> header.contains("application/json"))) {
+            return super.decode(response, type);
+        } else {
+            if (type.getTypeName().contains(LogStream.class.getName())) {
+                final JsonParser parser = this.jsonFactory.createParser(response.body().asInputStream());
+                final List<LogStream> result = new ArrayList<>();
+
+                while (parser.nextToken() != null) {
+                    if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                        result.add(readLogStream(parser));
+                    }
+                }
+                parser.close();
+
+                return result;
+            } else {
+                return new feign.codec.Decoder.Default().decode(response, type);
+            }
+        }
+    }
+
+    private static long longHeader(final Response response, final String name) {
+        final String value = header(response, name);
+        return value == null ? 0 : Long.parseLong(value.trim());
+    }
+
+    private static String header(final Response response, final String name) {
+        for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().iterator().next();
+            }
+        }
+        return null;
+    }
+
+    static LogStream readLogStream(final JsonParser parser) throws IOException {
+        final LogStream entry = new LogStream();
+
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "Data":
+                    entry.setData(parser.getValueAsString());
+                    break;
+                case "File":
+                    entry.setFile(parser.getValueAsString());
+                    break;
+                case "Offset":
+                    entry.setOffset(parser.getValueAsDouble());
+                    break;
+                case "FileEvent":
+                    entry.setFileEvent(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return entry;
+    }
+
+    private Stream<Object> stream(final Response response, final Type elementType) throws IOException {
+        if (response.status() == 404 || response.body() == null) {
+            return Stream.empty();
+        }
+
+        final Closeable detached = DetachableBodies.detach(response);
+        final Closeable body = detached != null ? detached : response.body();
+
+        final JsonParser parser = jsonFactory.createParser(response.body().asInputStream());
+        final JsonToken first;
+        try {
+            first = parser.nextToken();
+        } catch (IOException e) {
+            parser.close();
+            feign.Util.ensureClosed(body);
+            throw e;
+        }
+
+        // a JSON array, or a sequence of root level objects like the frames of a log stream
+        final JsonSequenceSpliterator<Object> elements = new JsonSequenceSpliterator<>(parser,
+            elementReader(elementType), body, first == JsonToken.START_ARRAY);
+        if (first == null) {
+            elements.close();
+            return Stream.empty();
+        }
+        if (first != JsonToken.START_ARRAY && first != JsonToken.START_OBJECT) {
+            elements.close();
+            throw new DecodeException("Expected a JSON array or objects but found " + first);
+        }
+
+        if (detached == null) {
+            // not ours to keep open, bind eagerly
+            return StreamSupport.stream(elements, false).collect(Collectors.toList()).stream();
+        }
+        return StreamSupport.stream(elements, false).onClose(elements::close);
+    }
+
+    private JsonSequenceSpliterator.ElementReader<Object> elementReader(final Type elementType) {
+        if (elementType == LogStream.class) {
+            return JacksonDecoderExtended::readLogStream;
+        }
+        final ObjectReader reader = readers.computeIfAbsent(elementType, t -> mapper.readerFor(mapper.constructType(t)));
+        return reader::readValue;
+    }
+}
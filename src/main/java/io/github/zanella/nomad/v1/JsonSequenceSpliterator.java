@@ -0,0 +1,126 @@
+package io.github.zanella.nomad.v1;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import feign.codec.DecodeException;
+
+/**
+ * Binds the elements of a JSON array, or of a sequence of root level values such as the frames of a log stream,
+ * one at a time, keeping only the current element in memory. The parser and the response body are released when
+ * the input ends or the owning stream is closed.
+ * <p>
+ * Closing from another thread, e.g. to cancel a followed log, only closes the body, which unblocks a read waiting on
+ * the socket; the parser is not thread safe and is left to the reading thread, which closes it and ends the
+ * sequence.
+ */
+final class JsonSequenceSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements Closeable {
+    interface ElementReader<T> {
+        /** Binds the value starting at the parser's current token. */
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private final JsonParser parser;
+
+    private final ElementReader<T> reader;
+
+    private final Closeable body;
+
+    private final boolean inArray;
+
+    private boolean positioned;
+
+    /** Guarded by {@code this}. */
+    private boolean closed;
+
+    /** Whether a thread is in {@code tryAdvance} and so owns the parser, guarded by {@code this}. */
+    private boolean reading;
+
+    /**
+     * @param parser positioned on the {@code START_ARRAY} of the array, or on the first token of the first value
+     *               of a root level sequence
+     */
+    JsonSequenceSpliterator(final JsonParser parser, final ElementReader<T> reader, final Closeable body,
+                            final boolean inArray) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.parser = parser;
+        this.reader = reader;
+        this.body = body;
+        this.inArray = inArray;
+        this.positioned = !inArray;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            reading = true;
+        }
+        try {
+            final JsonToken token = positioned ? parser.getCurrentToken() : parser.nextToken();
+            positioned = false;
+            if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+                close();
+                return false;
+            }
+            final T element = reader.read(parser);
+            if (isClosed()) {
+                return false;
+            }
+            action.accept(element);
+            return true;
+        } catch (IOException e) {
+            if (isClosed()) {
+                // closed under the read
+                return false;
+            }
+            close();
+            throw new DecodeException(e.getMessage(), e);
+        } finally {
+            final boolean release;
+            synchronized (this) {
+                reading = false;
+                release = closed;
+            }
+            if (release) {
+                closeParser();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        final boolean idle;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            idle = !reading;
+        }
+        if (idle) {
+            closeParser();
+        }
+        feign.Util.ensureClosed(body);
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void closeParser() {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // the body is closed anyway
+        }
+    }
+}
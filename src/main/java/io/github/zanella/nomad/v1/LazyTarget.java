@@ -0,0 +1,58 @@
+package io.github.zanella.nomad.v1;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import feign.Feign;
+import feign.Target;
+
+/**
+ * Proxy that defers Feign's contract parsing and method handler creation for an API until its first call.
+ * Once initialized every call goes straight to Feign's invocation handler.
+ */
+final class LazyTarget<A> implements InvocationHandler {
+    private final Feign feign;
+
+    private final Target<A> target;
+
+    private volatile InvocationHandler delegate;
+
+    private LazyTarget(final Feign feign, final Target<A> target) {
+        this.feign = feign;
+        this.target = target;
+    }
+
+    static <A> A newInstance(final Feign feign, final Target<A> target) {
+        final Class<A> type = target.type();
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            new LazyTarget<>(feign, target)));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Lazy" + target;
+            }
+        }
+
+        InvocationHandler handler = delegate;
+        if (handler == null) {
+            handler = initialize();
+        }
+        return handler.invoke(proxy, method, args);
+    }
+
+    private synchronized InvocationHandler initialize() {
+        if (delegate == null) {
+            delegate = Proxy.getInvocationHandler(feign.newInstance(target));
+        }
+        return delegate;
+    }
+}
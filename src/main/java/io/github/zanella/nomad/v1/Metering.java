@@ -0,0 +1,241 @@
+package io.github.zanella.nomad.v1;
+
+import io.github.zanella.nomad.v1.metrics.CallMetrics;
+import io.github.zanella.nomad.v1.metrics.MetricsListener;
+import io.github.zanella.nomad.v1.transport.Transport;
+import io.github.zanella.nomad.v1.transport.Transports;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * Measures the calls of a client for a {@link MetricsListener}: the invocation handler, or {@link AsyncApi}, opens a
+ * {@link Call} for the thread sending the request, the transport stamps the first byte and counts the body as it
+ * is read, and the decoder times the binding.
+ */
+final class Metering {
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    private static final ConcurrentMap<Method, String> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private Metering() { }
+
+    static final class Call {
+        final String endpoint;
+
+        final long start = System.nanoTime();
+
+        volatile int status = -1;
+
+        volatile long firstByte = -1;
+
+        final AtomicLong bytes = new AtomicLong();
+
+        final AtomicLong decodeNanos = new AtomicLong();
+
+        Call(final Method method) {
+            this.endpoint = ENDPOINTS.computeIfAbsent(method, Metering::endpointOf);
+        }
+
+        /**
+         * Runs {@code send} with this call as the current one, so the transport can find it.
+         */
+        <T> T sending(final Supplier<T> send) {
+            final Call outer = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return send.get();
+            } finally {
+                restore(outer);
+            }
+        }
+
+        void finished(final MetricsListener listener, final Throwable error) {
+            final int code = status < 0 && error instanceof FeignException ? ((FeignException) error).status() : status;
+            try {
+                listener.onCall(new CallMetrics(endpoint, code, firstByte < 0 ? -1 : firstByte - start,
+                    System.nanoTime() - start, bytes.get(), decodeNanos.get(), error));
+            } catch (RuntimeException ignored) {
+                // a broken listener must not fail the call
+            }
+        }
+    }
+
+    /**
+     * Feign invocation handlers reporting each call of the proxy to {@code listener}.
+     */
+    static InvocationHandlerFactory invocationHandlerFactory(final MetricsListener listener) {
+        return (target, dispatch) -> {
+            final InvocationHandler feign = new InvocationHandlerFactory.Default().create(target, dispatch);
+            return (proxy, method, args) -> {
+                if (!dispatch.containsKey(method)) {
+                    return feign.invoke(proxy, method, args);
+                }
+                final Call outer = CURRENT.get();
+                final Call call = new Call(method);
+                CURRENT.set(call);
+                Throwable error = null;
+                try {
+                    return feign.invoke(proxy, method, args);
+                } catch (Throwable t) {
+                    error = t;
+                    throw t;
+                } finally {
+                    restore(outer);
+                    call.finished(listener, error);
+                }
+            };
+        };
+    }
+
+    /**
+     * Decoder adding its time to the current call.
+     */
+    static Decoder decoder(final Decoder delegate) {
+        return (response, type) -> timed(CURRENT.get(), delegate, response, type);
+    }
+
+    static Object timed(final Call call, final Decoder delegate, final Response response, final Type type)
+        throws IOException, FeignException {
+        final long start = System.nanoTime();
+        try {
+            return delegate.decode(response, type);
+        } finally {
+            if (call != null) {
+                call.decodeNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Transport stamping the first byte of the current call and counting its body.
+     */
+    static Transport transport(final Transport delegate) {
+        return new Transport() {
+            @Override
+            public Response execute(final Request request, final Request.Options options) throws IOException {
+                final Call call = CURRENT.get();
+                final Response response = delegate.execute(request, options);
+                return call == null ? response : received(call, response);
+            }
+
+            @Override
+            public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+                final Call call = CURRENT.get();
+                final CompletableFuture<Response> exchange = delegate.executeAsync(request, options);
+                if (call == null) {
+                    return exchange;
+                }
+                return Transports.cancelling(exchange.thenApply(response -> received(call, response)), exchange);
+            }
+        };
+    }
+
+    private static Response received(final Call call, final Response response) {
+        call.firstByte = System.nanoTime();
+        call.status = response.status();
+        if (response.body() == null) {
+            return response;
+        }
+        return Response.create(response.status(), response.reason(), response.headers(),
+            new CountingBody(response.body(), call.bytes));
+    }
+
+    private static void restore(final Call outer) {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+
+    private static String endpointOf(final Method method) {
+        final RequestLine line = method.getAnnotation(RequestLine.class);
+        return line != null ? line.value() : method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private static final class CountingBody implements Response.Body {
+        private final Response.Body delegate;
+
+        private final AtomicLong bytes;
+
+        CountingBody(final Response.Body delegate, final AtomicLong bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return new FilterInputStream(delegate.asInputStream()) {
+                @Override
+                public int read() throws IOException {
+                    final int read = super.read();
+                    if (read >= 0) {
+                        bytes.incrementAndGet();
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                    final int read = super.read(buffer, offset, length);
+                    if (read > 0) {
+                        bytes.addAndGet(read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(final long n) throws IOException {
+                    final long skipped = super.skip(n);
+                    bytes.addAndGet(skipped);
+                    return skipped;
+                }
+            };
+        }
+
+        @Override
+        public Reader asReader() throws IOException {
+            return new InputStreamReader(asInputStream(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
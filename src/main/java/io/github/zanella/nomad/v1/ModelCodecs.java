@@ -0,0 +1,808 @@
+package io.github.zanella.nomad.v1;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.client.models.AllocationStats;
+import io.github.zanella.nomad.v1.common.models.AllocationSummary;
+import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.common.models.TaskState;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+import io.github.zanella.nomad.v1.nodes.models.Resources;
+import io.github.zanella.nomad.v1.nodes.models.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Streaming readers of the models decoded by the thousand, from the lists of allocations, nodes and jobs and the
+ * statistics of allocations, so that they are bound by a switch on the field name instead of the reflective bean
+ * deserializers. Each reader handles the {@code @JsonProperty} names of its model and skips the others, as the
+ * mapper ignores unknown properties; nested models without a reader, like the {@link Job} of an allocation, go back
+ * to the mapper. Subclasses keep the mapper's binding, e.g. a {@code NodeInfo} is not a {@link NodeSummary}.
+ * <p>
+ * The readers only use the streaming API, so they serve any Jackson format: the client's JSON mapper and the Smile
+ * snapshots of {@code ClusterStateCache} both register them.
+ * <p>
+ * Given a {@link StringTable}, the texts repeated across models are deduplicated through it: the statuses, the
+ * node, job and task group ids of the allocations, the datacenters and the drivers of the tasks. The keys of maps,
+ * like the attributes of the nodes, are field names, which the parser already shares; unique texts, like the ids
+ * of the allocations and the descriptions, are kept as the parser reads them.
+ */
+@SuppressWarnings("serial") // Jackson modules are Serializable, these readers are never serialized
+public final class ModelCodecs extends SimpleModule {
+    /** Table the repeated texts are deduplicated through, null to keep the parser's copies. */
+    private final StringTable strings;
+
+    private final TaskEventReader taskEvent = new TaskEventReader();
+
+    private final TaskStateReader taskState = new TaskStateReader();
+
+    private final AllocationReader allocation = new AllocationReader();
+
+    private final NodeAllocationReader nodeAllocation = new NodeAllocationReader();
+
+    private final NodeSummaryReader nodeSummary = new NodeSummaryReader();
+
+    private final JobSummaryReader jobSummary = new JobSummaryReader();
+
+    private final PortReader<Resources.Network.DynamicPort> dynamicPort =
+        new PortReader<>(Resources.Network.DynamicPort.class, Resources.Network.DynamicPort::new);
+
+    private final PortReader<Resources.Network.ReservedPort> reservedPort =
+        new PortReader<>(Resources.Network.ReservedPort.class, Resources.Network.ReservedPort::new);
+
+    private final NetworkReader network = new NetworkReader();
+
+    private final ResourcesReader resources = new ResourcesReader();
+
+    private final CpuStatsReader cpuStats = new CpuStatsReader();
+
+    private final MemoryStatsReader memoryStats = new MemoryStatsReader();
+
+    private final ResourceUsageReader resourceUsage = new ResourceUsageReader();
+
+    private final TaskStatsReader taskStats = new TaskStatsReader();
+
+    private final AllocationStatsReader allocationStats = new AllocationStatsReader();
+
+    private final SharedTextReader sharedText = new SharedTextReader();
+
+    public ModelCodecs() {
+        this(null);
+    }
+
+    ModelCodecs(final StringTable strings) {
+        super("nomad-model-codecs");
+        this.strings = strings;
+        addDeserializer(TaskState.Event.class, taskEvent);
+        addDeserializer(TaskState.class, taskState);
+        addDeserializer(Allocation.class, allocation);
+        addDeserializer(NodeAllocation.class, nodeAllocation);
+        addDeserializer(NodeSummary.class, nodeSummary);
+        addDeserializer(JobSummary.class, jobSummary);
+        addDeserializer(Resources.Network.DynamicPort.class, dynamicPort);
+        addDeserializer(Resources.Network.ReservedPort.class, reservedPort);
+        addDeserializer(Resources.Network.class, network);
+        addDeserializer(Resources.class, resources);
+        addDeserializer(AllocationStats.CpuStats.class, cpuStats);
+        addDeserializer(AllocationStats.MemoryStats.class, memoryStats);
+        addDeserializer(AllocationStats.ResourceUsage.class, resourceUsage);
+        addDeserializer(AllocationStats.Task.class, taskStats);
+        addDeserializer(AllocationStats.class, allocationStats);
+        if (strings != null) {
+            setDeserializerModifier(new SharedDriverModifier());
+        }
+    }
+
+    /**
+     * Binding helpers coercing scalars the way the mapper does.
+     */
+    private abstract class ModelReader<T> extends StdDeserializer<T> {
+        ModelReader(final Class<T> type) {
+            super(type);
+        }
+
+        /** Name of the first field of the object starting at the current token, null if it is empty. */
+        final String firstField(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final JsonToken token = p.getCurrentToken();
+            if (token == JsonToken.START_OBJECT) {
+                return p.nextFieldName();
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                return p.getCurrentName();
+            }
+            if (token == JsonToken.END_OBJECT) {
+                return null;
+            }
+            throw ctxt.mappingException(handledType(), token);
+        }
+
+        final String text(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final JsonToken token = p.getCurrentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return p.getText();
+            }
+            return token == JsonToken.VALUE_NULL ? null : _parseString(p, ctxt);
+        }
+
+        /** A text repeated across models, like a status or a node id, deduplicated through the table if any. */
+        final String shared(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            if (strings != null && p.getCurrentToken() == JsonToken.VALUE_STRING) {
+                return strings.intern(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            }
+            return text(p, ctxt);
+        }
+
+        final Integer integer(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            // boxed by hand: a conditional of a primitive and a boxed null would unbox the null
+            return p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT
+                ? Integer.valueOf(p.getIntValue()) : _parseInteger(p, ctxt);
+        }
+
+        final Long number(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            return p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT
+                ? Long.valueOf(p.getLongValue()) : _parseLong(p, ctxt);
+        }
+
+        final Double decimal(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            return p.getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT
+                ? Double.valueOf(p.getDoubleValue()) : _parseDouble(p, ctxt);
+        }
+
+        final List<String> texts(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            expect(p, ctxt, JsonToken.START_ARRAY);
+            final List<String> values = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                values.add(text(p, ctxt));
+            }
+            return values;
+        }
+
+        final <E> List<E> list(final JsonParser p, final DeserializationContext ctxt, final ModelReader<E> element)
+            throws IOException {
+            if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            expect(p, ctxt, JsonToken.START_ARRAY);
+            final List<E> values = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                values.add(p.getCurrentToken() == JsonToken.VALUE_NULL ? null : element.deserialize(p, ctxt));
+            }
+            return values;
+        }
+
+        final <V> Map<String, V> map(final JsonParser p, final DeserializationContext ctxt, final ModelReader<V> value)
+            throws IOException {
+            if (p.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            expect(p, ctxt, JsonToken.START_OBJECT);
+            final Map<String, V> values = new LinkedHashMap<>();
+            for (String key = p.nextFieldName(); key != null; key = p.nextFieldName()) {
+                values.put(key, p.nextToken() == JsonToken.VALUE_NULL ? null : value.deserialize(p, ctxt));
+            }
+            return values;
+        }
+
+        private void expect(final JsonParser p, final DeserializationContext ctxt, final JsonToken expected)
+            throws IOException {
+            if (p.getCurrentToken() != expected) {
+                throw ctxt.wrongTokenException(p, expected, "in a " + handledType().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Fields of {@link AllocationSummary}, shared by the readers of its subclasses.
+     */
+    private abstract class AllocationSummaryReader<T extends AllocationSummary> extends ModelReader<T> {
+        AllocationSummaryReader(final Class<T> type) {
+            super(type);
+        }
+
+        /** Binds the value of a summary field, false if {@code field} is not one. */
+        final boolean summaryField(final String field, final JsonParser p, final DeserializationContext ctxt,
+                                   final T allocation) throws IOException {
+            switch (field) {
+                case "ID":
+                    allocation.setId(text(p, ctxt));
+                    return true;
+                case "EvalID":
+                    allocation.setEvalId(text(p, ctxt));
+                    return true;
+                case "Name":
+                    allocation.setName(text(p, ctxt));
+                    return true;
+                case "NodeID":
+                    allocation.setNodeId(shared(p, ctxt));
+                    return true;
+                case "JobID":
+                    allocation.setJobId(shared(p, ctxt));
+                    return true;
+                case "TaskGroup":
+                    allocation.setTaskGroup(shared(p, ctxt));
+                    return true;
+                case "DesiredStatus":
+                    allocation.setDesiredStatus(shared(p, ctxt));
+                    return true;
+                case "DesiredDescription":
+                    allocation.setDesiredDescription(text(p, ctxt));
+                    return true;
+                case "ClientStatus":
+                    allocation.setClientStatus(shared(p, ctxt));
+                    return true;
+                case "ClientDescription":
+                    allocation.setClientDescription(text(p, ctxt));
+                    return true;
+                case "CreateIndex":
+                    allocation.setCreateIndex(integer(p, ctxt));
+                    return true;
+                case "ModifyIndex":
+                    allocation.setModifyIndex(integer(p, ctxt));
+                    return true;
+                case "CreateTime":
+                    allocation.setCreateTime(number(p, ctxt));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private final class AllocationReader extends AllocationSummaryReader<Allocation> {
+        AllocationReader() {
+            super(Allocation.class);
+        }
+
+        @Override
+        public Allocation deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final Allocation allocation = new Allocation();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                if ("TaskStates".equals(field)) {
+                    allocation.setTaskStates(map(p, ctxt, taskState));
+                } else if (!summaryField(field, p, ctxt, allocation)) {
+                    p.skipChildren();
+                }
+            }
+            return allocation;
+        }
+    }
+
+    private final class NodeAllocationReader extends AllocationSummaryReader<NodeAllocation> {
+        NodeAllocationReader() {
+            super(NodeAllocation.class);
+        }
+
+        @Override
+        public NodeAllocation deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final NodeAllocation allocation = new NodeAllocation();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                final JsonToken token = p.nextToken();
+                switch (field) {
+                    case "Resources":
+                        allocation.setResources(token == JsonToken.VALUE_NULL ? null : resources.deserialize(p, ctxt));
+                        break;
+                    case "Job":
+                        allocation.setJob(token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Job.class));
+                        break;
+                    case "TaskResources":
+                        allocation.setTaskResources(map(p, ctxt, resources));
+                        break;
+                    case "Metrics":
+                        allocation.setMetrics(token == JsonToken.VALUE_NULL
+                            ? null : ctxt.readValue(p, NodeAllocation.Metrics.class));
+                        break;
+                    case "TaskStates":
+                        allocation.setTaskStates(map(p, ctxt, taskState));
+                        break;
+                    default:
+                        if (!summaryField(field, p, ctxt, allocation)) {
+                            p.skipChildren();
+                        }
+                }
+            }
+            return allocation;
+        }
+    }
+
+    private final class TaskStateReader extends ModelReader<TaskState> {
+        TaskStateReader() {
+            super(TaskState.class);
+        }
+
+        @Override
+        public TaskState deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final TaskState state = new TaskState();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "Events":
+                        state.setEvents(list(p, ctxt, taskEvent));
+                        break;
+                    case "State":
+                        state.setState(shared(p, ctxt));
+                        break;
+                    case "Failed":
+                        state.setFailed(_parseBooleanPrimitive(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return state;
+        }
+    }
+
+    private final class TaskEventReader extends ModelReader<TaskState.Event> {
+        TaskEventReader() {
+            super(TaskState.Event.class);
+        }
+
+        @Override
+        public TaskState.Event deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final TaskState.Event event = new TaskState.Event();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "KillError":
+                        event.setKillError(text(p, ctxt));
+                        break;
+                    case "KillReason":
+                        event.setKillReason(text(p, ctxt));
+                        break;
+                    case "KillTimeout":
+                        event.setKillTimeout(number(p, ctxt));
+                        break;
+                    case "Message":
+                        event.setMessage(text(p, ctxt));
+                        break;
+                    case "Signal":
+                        event.setSignal(integer(p, ctxt));
+                        break;
+                    case "ExitCode":
+                        event.setExitCode(integer(p, ctxt));
+                        break;
+                    case "DriverError":
+                        event.setDriverError(text(p, ctxt));
+                        break;
+                    case "Time":
+                        event.setTime(number(p, ctxt));
+                        break;
+                    case "Type":
+                        event.setType(text(p, ctxt));
+                        break;
+                    case "FailsTask":
+                        event.setFailsTask(_parseBooleanPrimitive(p, ctxt));
+                        break;
+                    case "TaskSignalReason":
+                        event.setTaskSignalReason(text(p, ctxt));
+                        break;
+                    case "TaskSignal":
+                        event.setTaskSignal(text(p, ctxt));
+                        break;
+                    case "ValidationError":
+                        event.setValidationError(text(p, ctxt));
+                        break;
+                    case "DownloadError":
+                        event.setDownloadError(text(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return event;
+        }
+    }
+
+    private final class NodeSummaryReader extends ModelReader<NodeSummary> {
+        NodeSummaryReader() {
+            super(NodeSummary.class);
+        }
+
+        @Override
+        public NodeSummary deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final NodeSummary node = new NodeSummary();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "ID":
+                        node.setId(text(p, ctxt));
+                        break;
+                    case "Datacenter":
+                        node.setDatacenter(shared(p, ctxt));
+                        break;
+                    case "Name":
+                        node.setName(text(p, ctxt));
+                        break;
+                    case "NodeClass":
+                        node.setNodeClass(text(p, ctxt));
+                        break;
+                    case "Drain":
+                        node.setDrain(_parseBoolean(p, ctxt));
+                        break;
+                    case "Status":
+                        node.setStatus(shared(p, ctxt));
+                        break;
+                    case "StatusDescription":
+                        node.setStatusDescription(text(p, ctxt));
+                        break;
+                    case "CreateIndex":
+                        node.setCreateIndex(integer(p, ctxt));
+                        break;
+                    case "ModifyIndex":
+                        node.setModifyIndex(integer(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return node;
+        }
+    }
+
+    private final class JobSummaryReader extends ModelReader<JobSummary> {
+        JobSummaryReader() {
+            super(JobSummary.class);
+        }
+
+        @Override
+        public JobSummary deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final JobSummary job = new JobSummary();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "ID":
+                        job.setId(text(p, ctxt));
+                        break;
+                    case "Name":
+                        job.setName(text(p, ctxt));
+                        break;
+                    case "Type":
+                        job.setType(text(p, ctxt));
+                        break;
+                    case "Priority":
+                        job.setPriority(integer(p, ctxt));
+                        break;
+                    case "Status":
+                        job.setStatus(shared(p, ctxt));
+                        break;
+                    case "StatusDescription":
+                        job.setStatusDescription(text(p, ctxt));
+                        break;
+                    case "CreateIndex":
+                        job.setCreateIndex(integer(p, ctxt));
+                        break;
+                    case "ModifyIndex":
+                        job.setModifyIndex(integer(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return job;
+        }
+    }
+
+    private final class ResourcesReader extends ModelReader<Resources> {
+        ResourcesReader() {
+            super(Resources.class);
+        }
+
+        @Override
+        public Resources deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final Resources resources = new Resources();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "CPU":
+                        resources.setCpu(integer(p, ctxt));
+                        break;
+                    case "MemoryMB":
+                        resources.setMemoryMB(integer(p, ctxt));
+                        break;
+                    case "DiskMB":
+                        resources.setDiskMB(integer(p, ctxt));
+                        break;
+                    case "IOPS":
+                        resources.setIops(integer(p, ctxt));
+                        break;
+                    case "Networks":
+                        resources.setNetworks(list(p, ctxt, network));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return resources;
+        }
+    }
+
+    private final class NetworkReader extends ModelReader<Resources.Network> {
+        NetworkReader() {
+            super(Resources.Network.class);
+        }
+
+        @Override
+        public Resources.Network deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final Resources.Network network = new Resources.Network();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "DynamicPorts":
+                        network.setDynamicPorts(list(p, ctxt, dynamicPort));
+                        break;
+                    case "ReservedPorts":
+                        network.setReservedPorts(list(p, ctxt, reservedPort));
+                        break;
+                    case "MBits":
+                        network.setMBits(integer(p, ctxt));
+                        break;
+                    case "IP":
+                        network.setIp(text(p, ctxt));
+                        break;
+                    case "CIDR":
+                        network.setCidr(text(p, ctxt));
+                        break;
+                    case "Device":
+                        network.setDevice(text(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return network;
+        }
+    }
+
+    /**
+     * Dynamic and reserved ports, which have the same fields.
+     */
+    private final class PortReader<T> extends ModelReader<T> {
+        private final BiFunction<Integer, String, T> create;
+
+        PortReader(final Class<T> type, final BiFunction<Integer, String, T> create) {
+            super(type);
+            this.create = create;
+        }
+
+        @Override
+        public T deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            Integer value = null;
+            String label = null;
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "Value":
+                        value = integer(p, ctxt);
+                        break;
+                    case "Label":
+                        label = text(p, ctxt);
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return create.apply(value, label);
+        }
+    }
+
+    private final class CpuStatsReader extends ModelReader<AllocationStats.CpuStats> {
+        CpuStatsReader() {
+            super(AllocationStats.CpuStats.class);
+        }
+
+        @Override
+        public AllocationStats.CpuStats deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final AllocationStats.CpuStats stats = new AllocationStats.CpuStats();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "Measured":
+                        stats.setMeasured(texts(p, ctxt));
+                        break;
+                    case "Percent":
+                        stats.setPercent(decimal(p, ctxt));
+                        break;
+                    case "SystemMode":
+                        stats.setSystemMode(decimal(p, ctxt));
+                        break;
+                    case "ThrottledPeriods":
+                        stats.setThrottledPeriods(number(p, ctxt));
+                        break;
+                    case "ThrottledTime":
+                        stats.setThrottledTime(number(p, ctxt));
+                        break;
+                    case "TotalTicks":
+                        stats.setTotalTicks(decimal(p, ctxt));
+                        break;
+                    case "UserMode":
+                        stats.setUserMode(decimal(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return stats;
+        }
+    }
+
+    private final class MemoryStatsReader extends ModelReader<AllocationStats.MemoryStats> {
+        MemoryStatsReader() {
+            super(AllocationStats.MemoryStats.class);
+        }
+
+        @Override
+        public AllocationStats.MemoryStats deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final AllocationStats.MemoryStats stats = new AllocationStats.MemoryStats();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "Measured":
+                        stats.setMeasured(texts(p, ctxt));
+                        break;
+                    case "Cache":
+                        stats.setCache(number(p, ctxt));
+                        break;
+                    case "KernelMaxUsage":
+                        stats.setKernelMaxUsage(number(p, ctxt));
+                        break;
+                    case "KernelUsage":
+                        stats.setKernelUsage(number(p, ctxt));
+                        break;
+                    case "MaxUsage":
+                        stats.setMaxUsage(number(p, ctxt));
+                        break;
+                    case "RSS":
+                        stats.setRss(number(p, ctxt));
+                        break;
+                    case "Swap":
+                        stats.setSwap(number(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return stats;
+        }
+    }
+
+    private final class ResourceUsageReader extends ModelReader<AllocationStats.ResourceUsage> {
+        ResourceUsageReader() {
+            super(AllocationStats.ResourceUsage.class);
+        }
+
+        @Override
+        public AllocationStats.ResourceUsage deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final AllocationStats.ResourceUsage usage = new AllocationStats.ResourceUsage();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                final JsonToken token = p.nextToken();
+                switch (field) {
+                    case "CpuStats":
+                        usage.setCpuStats(token == JsonToken.VALUE_NULL ? null : cpuStats.deserialize(p, ctxt));
+                        break;
+                    case "MemoryStats":
+                        usage.setMemoryStats(token == JsonToken.VALUE_NULL ? null : memoryStats.deserialize(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return usage;
+        }
+    }
+
+    private final class TaskStatsReader extends ModelReader<AllocationStats.Task> {
+        TaskStatsReader() {
+            super(AllocationStats.Task.class);
+        }
+
+        @Override
+        public AllocationStats.Task deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final AllocationStats.Task task = new AllocationStats.Task();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                final JsonToken token = p.nextToken();
+                switch (field) {
+                    case "Pids":
+                        task.setPids(map(p, ctxt, resourceUsage));
+                        break;
+                    case "ResourceUsage":
+                        task.setResourceUsage(token == JsonToken.VALUE_NULL
+                            ? null : resourceUsage.deserialize(p, ctxt));
+                        break;
+                    case "Timestamp":
+                        task.setTimestamp(number(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return task;
+        }
+    }
+
+    private final class AllocationStatsReader extends ModelReader<AllocationStats> {
+        AllocationStatsReader() {
+            super(AllocationStats.class);
+        }
+
+        @Override
+        public AllocationStats deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final AllocationStats stats = new AllocationStats();
+            for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+                final JsonToken token = p.nextToken();
+                switch (field) {
+                    case "ResourceUsage":
+                        stats.setResourceUsage(token == JsonToken.VALUE_NULL
+                            ? null : resourceUsage.deserialize(p, ctxt));
+                        break;
+                    case "Tasks":
+                        stats.setTasks(map(p, ctxt, taskStats));
+                        break;
+                    case "Timestamp":
+                        stats.setTimestamp(number(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Reader of a text repeated across models, for the properties bound by the mapper.
+     */
+    private final class SharedTextReader extends ModelReader<String> {
+        SharedTextReader() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            return shared(p, ctxt);
+        }
+    }
+
+    /**
+     * Deduplicates the driver of the tasks, which the mapper binds with the rest of a job.
+     */
+    private final class SharedDriverModifier extends BeanDeserializerModifier {
+        @Override
+        public BeanDeserializerBuilder updateBuilder(final DeserializationConfig config,
+                                                     final BeanDescription beanDesc,
+                                                     final BeanDeserializerBuilder builder) {
+            final SettableBeanProperty driver = Task.class.isAssignableFrom(beanDesc.getBeanClass())
+                ? builder.findProperty(new PropertyName("Driver")) : null;
+            if (driver != null) {
+                builder.addOrReplaceProperty(driver.withValueDeserializer(sharedText), true);
+            }
+            return builder;
+        }
+    }
+}
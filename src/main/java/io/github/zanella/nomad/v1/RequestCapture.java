@@ -0,0 +1,66 @@
+package io.github.zanella.nomad.v1;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import feign.Client;
+import feign.InvocationHandlerFactory;
+import feign.Request;
+import feign.Target;
+
+/**
+ * Feign plumbing that runs the contract, encoder and interceptors of an endpoint but, instead of sending the
+ * resulting request, hands it back to the caller together with the invoked method.
+ */
+final class RequestCapture {
+    static final class Captured extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final Request request;
+
+        Method method;
+
+        Captured(final Request request) {
+            super(null, null, false, false);
+            this.request = request;
+        }
+    }
+
+    static final Client CLIENT = (request, options) -> {
+        throw new Captured(request);
+    };
+
+    static final InvocationHandlerFactory INVOCATION_HANDLER_FACTORY = RequestCapture::invocationHandler;
+
+    private RequestCapture() { }
+
+    private static InvocationHandler invocationHandler(
+        final Target<?> target, final Map<Method, InvocationHandlerFactory.MethodHandler> dispatch) {
+        final InvocationHandler objectMethods = new InvocationHandlerFactory.Default().create(target, dispatch);
+
+        return (proxy, method, args) -> {
+            final InvocationHandlerFactory.MethodHandler handler = dispatch.get(method);
+            if (handler == null) {
+                return objectMethods.invoke(proxy, method, args);
+            }
+
+            try {
+                handler.invoke(args);
+            } catch (Captured captured) {
+                captured.method = method;
+                throw captured;
+            }
+            throw new IllegalStateException("Request for " + method + " was sent instead of captured");
+        };
+    }
+
+    static Captured capture(final Runnable call) {
+        try {
+            call.run();
+        } catch (Captured captured) {
+            return captured;
+        }
+        throw new IllegalArgumentException("The endpoint function must invoke exactly one API method");
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.zanella.nomad.v1;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded intern table for the texts repeated across decoded models, like statuses, datacenters and the ids of
+ * nodes and jobs, so that large results and the views cached from them share one copy of each.
+ * <p>
+ * It is a direct-mapped cache: a text takes the slot of its hash, replacing whatever was there, so its memory is
+ * fixed and lookups take no lock, at the price of a missed deduplication now and then. A text read again from the
+ * parser's buffer is returned without allocating; texts longer than {@value #MAX_LENGTH} chars are not kept.
+ */
+final class StringTable {
+    static final int MAX_LENGTH = 64;
+
+    private final AtomicReferenceArray<String> slots;
+
+    private final int mask;
+
+    /**
+     * @param size slots, rounded up to a power of two
+     */
+    StringTable(final int size) {
+        final int slotCount = Integer.highestOneBit(Math.max(2, size) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * The text of {@code chars[offset, offset + length)}, the copy of the table if it has one.
+     */
+    String intern(final char[] chars, final int offset, final int length) {
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int slot = (hash ^ (hash >>> 16)) & mask;
+        final String cached = slots.get(slot);
+        if (cached != null && cached.length() == length && regionMatches(cached, chars, offset)) {
+            return cached;
+        }
+        final String text = new String(chars, offset, length);
+        // strings are immutable, publishing them lazily is safe
+        slots.lazySet(slot, text);
+        return text;
+    }
+
+    private static boolean regionMatches(final String cached, final char[] chars, final int offset) {
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
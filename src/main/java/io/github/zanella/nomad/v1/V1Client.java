@@ -1,9 +1,6 @@
 package io.github.zanella.nomad.v1;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -13,27 +10,29 @@ import io.github.zanella.nomad.v1.agent.AgentApi;
 import io.github.zanella.nomad.v1.allocations.AllocationApi;
 import io.github.zanella.nomad.v1.allocations.AllocationsApi;
 import io.github.zanella.nomad.v1.client.ClientApi;
-import io.github.zanella.nomad.v1.client.models.LogStream;
 import io.github.zanella.nomad.v1.evaluations.EvaluationApi;
 import io.github.zanella.nomad.v1.evaluations.EvaluationsApi;
 import io.github.zanella.nomad.v1.jobs.JobApi;
 import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.metrics.MetricsListener;
 import io.github.zanella.nomad.v1.nodes.NodeApi;
 import io.github.zanella.nomad.v1.nodes.NodesApi;
 import io.github.zanella.nomad.v1.regions.RegionsApi;
 import io.github.zanella.nomad.v1.status.StatusApi;
+import io.github.zanella.nomad.v1.transport.Transport;
+import io.github.zanella.nomad.v1.transport.Transports;
+import io.github.zanella.nomad.v1.transport.UrlConnectionTransport;
 
 import lombok.Getter;
 
-import java.io.IOException;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 import feign.Feign;
 import feign.Logger;
-import feign.Response;
-import feign.jackson.JacksonDecoder;
+import feign.Request;
+import feign.Target;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
 import feign.jackson.JacksonEncoder;
 
 public final class V1Client {
@@ -59,43 +58,74 @@ public final class V1Client {
 
     public final ClientApi client;
 
+    @Getter
+    private final Transport transport;
+
+    private final Builder settings;
+
     public V1Client(String agentHost, int agentPort) {
-        this.agentAddress = agentHost + ":" + agentPort;
+        this(builder(agentHost, agentPort));
+    }
 
-        final ObjectMapper objectMapper = customObjectMapper();
+    private V1Client(final Builder builder) {
+        this.agentAddress = builder.agentAddress();
+        this.transport = builder.transport(Transports.defaultExecutor());
+        this.settings = builder.copy(builder.agentHost, builder.agentPort).transport(transport);
 
         final Feign.Builder feignBuilder = Feign.builder()
-                .decoder(new JacksonDecoderExtended(objectMapper))
-                .encoder(new JacksonEncoder(objectMapper))
+                .client(new DetachableBodies(builder.bodies(transport)))
+                .options(builder.options)
+                .decoder(builder.decoder())
+                .encoder(builder.encoder())
                 .logger(new Logger.ErrorLogger());
                 //.logLevel(Logger.Level.FULL)
+        if (builder.metrics != null) {
+            feignBuilder
+                .invocationHandlerFactory(Metering.invocationHandlerFactory(builder.metrics))
+                .decoder(Metering.decoder(builder.decoder()));
+        }
+        final Feign feign = feignBuilder.build();
+
+        this.status = builder.target(feign, StatusApi.class);
 
-        this.status = feignBuilder.target(StatusApi.class, agentAddress);
+        this.regions = builder.target(feign, RegionsApi.class);
 
-        this.regions = feignBuilder.target(RegionsApi.class, agentAddress);
+        this.nodes = builder.target(feign, NodesApi.class);
 
-        this.nodes = feignBuilder.target(NodesApi.class, agentAddress);
+        this.node = builder.target(feign, NodeApi.class);
 
-        this.node = feignBuilder.target(NodeApi.class, agentAddress);
+        this.jobs = builder.target(feign, JobsApi.class);
 
-        this.jobs = feignBuilder.target(JobsApi.class, agentAddress);
+        this.job = builder.target(feign, JobApi.class);
 
-        this.job = feignBuilder.target(JobApi.class, agentAddress);
+        this.allocations = builder.target(feign, AllocationsApi.class);
 
-        this.allocations = feignBuilder.target(AllocationsApi.class, agentAddress);
+        this.allocation = builder.target(feign, AllocationApi.class);
 
-        this.allocation = feignBuilder.target(AllocationApi.class, agentAddress);
+        this.evaluations = builder.target(feign, EvaluationsApi.class);
 
-        this.evaluations = feignBuilder.target(EvaluationsApi.class, agentAddress);
+        this.evaluation = builder.target(feign, EvaluationApi.class);
 
-        this.evaluation = feignBuilder.target(EvaluationApi.class, agentAddress);
+        this.agent = builder.target(feign, AgentApi.class);
+
+        this.client = builder.target(feign, ClientApi.class);
+    }
 
-        this.agent = feignBuilder.target(AgentApi.class, agentAddress);
+    /**
+     * A client for another agent sharing this one's transport, options and codecs.
+     */
+    public V1Client withAgent(String agentHost, int agentPort) {
+        return settings.copy(agentHost, agentPort).build();
+    }
 
-        this.client = feignBuilder.target(ClientApi.class, agentAddress);
+    static ObjectMapper customObjectMapper() {
+        return reflectiveObjectMapper().registerModule(new ModelCodecs());
     }
 
-    protected ObjectMapper customObjectMapper() {
+    /**
+     * The mapper without the {@link ModelCodecs}, binding every model through its bean deserializer.
+     */
+    static ObjectMapper reflectiveObjectMapper() {
         return new ObjectMapper()
                 .setAnnotationIntrospector(new JacksonLombokAnnotationIntrospector())
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL)
@@ -103,58 +133,181 @@ public final class V1Client {
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
-    private final class JacksonDecoderExtended extends JacksonDecoder {
-
-        private final JsonFactory jsonFactory;
-
-        public JacksonDecoderExtended(ObjectMapper mapper) {
-            super(mapper);
-
-            this.jsonFactory = mapper.getFactory();
-        }
-
-        @Override
-        public Object decode(final Response response, final Type type) throws IOException {
-            if (response.headers().get("Content-Type").stream()
-                .anyMatch(header -> header.contains("application/json"))) {
-                return super.decode(response, type);
-            } else {
-                if (type.getTypeName().contains(LogStream.class.getName())) {
-                    final JsonParser parser = this.jsonFactory.createParser(response.body().asInputStream());
-                    final List<LogStream> result = new ArrayList<>();
-
-                    while (parser.nextToken() != null) {
-                        if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
-                            LogStream entry = new LogStream();
-
-                            while (parser.nextToken() != JsonToken.END_OBJECT) {
-                                String field = parser.getCurrentName();
-                                parser.nextToken();
-                                switch (field) {
-                                    case "Data":
-                                        entry.setData(parser.getValueAsString());
-                                        break;
-                                    case "File":
-                                        entry.setFile(parser.getValueAsString());
-                                        break;
-                                    case "Offset":
-                                        entry.setOffset(parser.getValueAsDouble());
-                                        break;
-                                    case "FileEvent":
-                                        entry.setFileEvent(parser.getValueAsString());
-                                        break;
-                                }
-                            }
-                            result.add(entry);
-                        }
-                    }
-                    parser.close();
-
-                    return result;
+    public static Builder builder(String agentHost, int agentPort) {
+        return new Builder(agentHost, agentPort);
+    }
+
+    public static final class Builder {
+        private final String agentHost;
+
+        private final int agentPort;
+
+        Transport transport;
+
+        Request.Options options = new Request.Options();
+
+        private boolean lazy;
+
+        private boolean compression = true;
+
+        private boolean deduplicateStrings;
+
+        MetricsListener metrics;
+
+        private ObjectMapper objectMapper;
+
+        private Decoder decoder;
+
+        private Encoder encoder;
+
+        private Builder(final String agentHost, final int agentPort) {
+            this.agentHost = agentHost;
+            this.agentPort = agentPort;
+        }
+
+        /**
+         * HTTP transport shared by every API, e.g. a {@link io.github.zanella.nomad.v1.transport.PooledTransport}.
+         * Defaults to a {@link UrlConnectionTransport}.
+         */
+        public Builder transport(final Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        public Builder options(final Request.Options options) {
+            this.options = options;
+            return this;
+        }
+
+        /**
+         * When set, the Feign proxy of each API is built on its first call instead of in the constructor, which
+         * makes short lived clients that only use a couple of endpoints start much faster.
+         */
+        public Builder lazy(final boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * Whether to ask for gzip compressed responses, inflated while they are decoded; on by default. JSON
+         * lists shrink several times, which outweighs the CPU spent inflating them on slow links.
+         */
+        public Builder compression(final boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Whether to share one copy of the texts repeated across the decoded allocations, nodes, jobs and
+         * allocation stats, e.g. {@code "running"} or the id of a node, through a bounded table common to the
+         * clients; off by default. It cuts the heap retained by large results, or views of the cluster cached from
+         * them, for a small decoding cost. It has no effect with a custom {@link #objectMapper(ObjectMapper)}.
+         */
+        public Builder deduplicateStrings(final boolean deduplicateStrings) {
+            this.deduplicateStrings = deduplicateStrings;
+            this.decoder = null;
+            return this;
+        }
+
+        /**
+         * Listener told about every call, with its endpoint, status, latency, time to first byte, response bytes
+         * and decode time, e.g. an {@link io.github.zanella.nomad.v1.metrics.EndpointMetrics}.
+         */
+        public Builder metrics(final MetricsListener metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Mapper for the request and response bodies. By default every client shares one preconfigured instance,
+         * together with its decoder and encoder, so Jackson's caches stay warm across clients.
+         */
+        public Builder objectMapper(final ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            this.decoder = null;
+            this.encoder = null;
+            return this;
+        }
+
+        public V1Client build() {
+            return new V1Client(this);
+        }
+
+        /**
+         * Builds an {@link AsyncV1Client} with the same settings, decoding responses on the given executor.
+         * <p>
+         * Without a {@link #transport(Transport) transport}, each exchange blocks an executor thread until it is
+         * answered, so N calls in flight hold N threads. A {@link io.github.zanella.nomad.v1.transport.PooledTransport}
+         * caps them at its {@code maxRequests}, queueing the others.
+         */
+        public AsyncV1Client buildAsync(final Executor executor) {
+            return new AsyncV1Client(this, executor);
+        }
+
+        String agentAddress() {
+            return agentHost + ":" + agentPort;
+        }
+
+        Builder copy(final String agentHost, final int agentPort) {
+            final Builder copy = new Builder(agentHost, agentPort);
+            copy.transport = transport;
+            copy.options = options;
+            copy.lazy = lazy;
+            copy.compression = compression;
+            copy.deduplicateStrings = deduplicateStrings;
+            copy.metrics = metrics;
+            copy.objectMapper = objectMapper;
+            copy.decoder = decoder();
+            copy.encoder = encoder();
+            return copy;
+        }
+
+        <A> A target(final Feign feign, final Class<A> type) {
+            final Target<A> target = new Target.HardCodedTarget<>(type, agentAddress());
+            return lazy ? LazyTarget.newInstance(feign, target) : feign.newInstance(target);
+        }
+
+        Decoder decoder() {
+            if (decoder == null) {
+                if (objectMapper != null) {
+                    decoder = new JacksonDecoderExtended(objectMapper);
                 } else {
-                    return new feign.codec.Decoder.Default().decode(response, type);
+                    decoder = deduplicateStrings ? DeduplicatingCodecs.DECODER : SharedCodecs.DECODER;
                 }
             }
+            return decoder;
+        }
+
+        Encoder encoder() {
+            if (encoder == null) {
+                encoder = objectMapper == null ? SharedCodecs.ENCODER : new JacksonEncoder(objectMapper);
+            }
+            return encoder;
+        }
+
+        /** The transport, measuring the calls and inflating the compressed responses if asked to. */
+        Transport bodies(final Transport transport) {
+            final Transport measured = metrics != null ? Metering.transport(transport) : transport;
+            return compression ? new GzipBodies(measured) : measured;
+        }
+
+        Transport transport(final Executor executor) {
+            return transport != null ? transport : new UrlConnectionTransport(executor);
         }
     }
+
+    private static final class SharedCodecs {
+        static final ObjectMapper MAPPER = customObjectMapper();
+
+        static final Decoder DECODER = new JacksonDecoderExtended(MAPPER);
+
+        static final Encoder ENCODER = new JacksonEncoder(MAPPER);
+    }
+
+    private static final class DeduplicatingCodecs {
+        static final StringTable STRINGS = new StringTable(1 << 16);
+
+        static final Decoder DECODER =
+            new JacksonDecoderExtended(reflectiveObjectMapper().registerModule(new ModelCodecs(STRINGS)));
+    }
 }
@@ -1,8 +1,10 @@
 package io.github.zanella.nomad.v1.allocations;
 
 import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import feign.Param;
 import feign.RequestLine;
@@ -13,8 +15,25 @@ public interface AllocationsApi {
     @RequestLine("GET " + allocationsUrl)
     List<Allocation> getAllocations();
 
+    String allocationsBlockingUrl = allocationsUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + allocationsBlockingUrl)
+    QueryResult<List<Allocation>> getAllocations(@Param("index") long index, @Param("wait") String wait);
+
     String allocationsForRegionUrl = allocationsUrl + "?region={region}";
 
     @RequestLine("GET " + allocationsForRegionUrl)
     List<Allocation> getAllocationsForRegion(@Param("region") String region);
+
+    String allocationsForRegionBlockingUrl = allocationsForRegionUrl + "&index={index}&wait={wait}";
+
+    @RequestLine("GET " + allocationsForRegionBlockingUrl)
+    QueryResult<List<Allocation>> getAllocationsForRegion(@Param("region") String region, @Param("index") long index,
+                                                          @Param("wait") String wait);
+
+    @RequestLine("GET " + allocationsUrl)
+    Stream<Allocation> streamAllocations();
+
+    @RequestLine("GET " + allocationsForRegionUrl)
+    Stream<Allocation> streamAllocationsForRegion(@Param("region") String region);
 }
@@ -0,0 +1,248 @@
+package io.github.zanella.nomad.v1.client;
+
+import io.github.zanella.nomad.v1.client.models.AllocationFile;
+import io.github.zanella.nomad.v1.transport.Transports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import feign.FeignException;
+import feign.Response;
+
+/**
+ * Copies allocation files into channels through one fixed size buffer, so files of any size can be downloaded
+ * without holding them in memory like {@link ClientApi#getAllocationFileContent(String, String)} does.
+ */
+public final class AllocationFileDownloader {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    public static final long DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    public static final int DEFAULT_CHUNK_ATTEMPTS = 3;
+
+    public interface ProgressListener {
+        /**
+         * @param position offset in the file up to which it has been written
+         * @param length   size of the file, or -1 when the agent did not send it
+         */
+        void progress(long position, long length);
+    }
+
+    private final ClientApi client;
+
+    private final int bufferSize;
+
+    public AllocationFileDownloader(ClientApi client) {
+        this(client, DEFAULT_BUFFER_SIZE);
+    }
+
+    public AllocationFileDownloader(ClientApi client, int bufferSize) {
+        this.client = client;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Writes the file from {@code offset} to its end into {@code target}, returning the number of bytes written.
+     */
+    public long download(String allocationId, String path, long offset, WritableByteChannel target,
+                         ProgressListener listener) throws IOException {
+        return transfer("ClientApi#readAllocationFile", client.readAllocationFile(allocationId, path, offset), offset,
+            target, listener);
+    }
+
+    /**
+     * Downloads the file into {@code target}, resuming after the bytes a previous, interrupted download left in it.
+     * Returns the number of bytes written.
+     */
+    public long download(String allocationId, String path, Path target, ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            final long offset = channel.size();
+            channel.position(offset);
+            return download(allocationId, path, offset, channel, listener);
+        }
+    }
+
+    /**
+     * Writes the whole file into {@code target} through the {@code cat} endpoint, returning the number of bytes
+     * written.
+     */
+    public long cat(String allocationId, String path, WritableByteChannel target,
+                    ProgressListener listener) throws IOException {
+        return transfer("ClientApi#catAllocationFile", client.catAllocationFile(allocationId, path), 0, target,
+            listener);
+    }
+
+    /**
+     * Like {@link #cat(String, String, WritableByteChannel, ProgressListener)}, replacing {@code target}.
+     */
+    public long cat(String allocationId, String path, Path target, ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            return cat(allocationId, path, channel, listener);
+        }
+    }
+
+    /**
+     * Downloads the file into {@code target} as {@link #DEFAULT_CHUNK_SIZE} ranges, fetching up to
+     * {@code parallelism} of them at once on the shared executor. Returns the size of the file.
+     */
+    public long downloadParallel(String allocationId, String path, Path target, int parallelism,
+                                 ProgressListener listener) throws IOException {
+        return downloadParallel(allocationId, path, target, parallelism, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNK_ATTEMPTS,
+            Transports.defaultExecutor(), listener);
+    }
+
+    /**
+     * Downloads the file into {@code target} as ranges of {@code chunkSize} bytes, fetching up to
+     * {@code parallelism} of them at once on {@code executor} and writing each one at its position in the
+     * pre-sized file. A range that fails with an I/O error or a server error is fetched again, up to
+     * {@code attempts} times. The listener is called from the downloading threads with the number of bytes written
+     * so far and the size of the file. Returns the size of the file.
+     *
+     * @throws IllegalArgumentException when {@code parallelism}, {@code chunkSize} or {@code attempts} is below 1
+     */
+    public long downloadParallel(String allocationId, String path, Path target, int parallelism, long chunkSize,
+                                 int attempts, Executor executor, ProgressListener listener) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism " + parallelism + " must be at least 1");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size " + chunkSize + " must be at least 1");
+        }
+        if (attempts < 1) {
+            throw new IllegalArgumentException("Attempts " + attempts + " must be at least 1");
+        }
+        final AllocationFile stats = client.getAllocationFileStats(allocationId, path);
+        if (stats.isDir()) {
+            throw new IllegalArgumentException(path + " is a directory");
+        }
+        final long size = stats.getSize();
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (size > 0) {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+
+            final long chunks = (size + chunkSize - 1) / chunkSize;
+            final AtomicLong nextChunk = new AtomicLong();
+            final AtomicLong written = new AtomicLong();
+            final AtomicBoolean failed = new AtomicBoolean();
+
+            final Runnable worker = () -> {
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+                for (long chunk = nextChunk.getAndIncrement(); chunk < chunks && !failed.get();
+                     chunk = nextChunk.getAndIncrement()) {
+                    final long offset = chunk * chunkSize;
+                    final long length = Math.min(chunkSize, size - offset);
+                    try {
+                        readRange(allocationId, path, offset, length, attempts, channel, buffer);
+                    } catch (IOException | RuntimeException e) {
+                        failed.set(true);
+                        throw e instanceof IOException ? new UncheckedIOException((IOException) e)
+                            : (RuntimeException) e;
+                    }
+                    final long total = written.addAndGet(length);
+                    if (listener != null) {
+                        listener.progress(total, size);
+                    }
+                }
+            };
+
+            final CompletableFuture<?>[] workers = new CompletableFuture<?>[(int) Math.min(parallelism, chunks)];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = CompletableFuture.runAsync(worker, executor);
+            }
+            try {
+                CompletableFuture.allOf(workers).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        return size;
+    }
+
+    private void readRange(final String allocationId, final String path, final long offset, final long length,
+                           final int attempts, final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try (Response response = client.readAllocationFile(allocationId, path, offset, length)) {
+                if (response.status() < 200 || response.status() >= 300) {
+                    throw FeignException.errorStatus("ClientApi#readAllocationFile", response);
+                }
+
+                long position = offset;
+                if (response.body() != null) {
+                    try (ReadableByteChannel source = Channels.newChannel(response.body().asInputStream())) {
+                        buffer.clear();
+                        while (source.read(buffer) >= 0) {
+                            buffer.flip();
+                            while (buffer.hasRemaining()) {
+                                position += channel.write(buffer, position);
+                            }
+                            buffer.clear();
+                        }
+                    }
+                }
+                if (position - offset != length) {
+                    throw new IOException("Read " + (position - offset) + " bytes of " + path + " at offset "
+                        + offset + ", expected " + length);
+                }
+                return;
+            } catch (IOException | FeignException e) {
+                final boolean clientError = e instanceof FeignException
+                    && ((FeignException) e).status() >= 400 && ((FeignException) e).status() < 500;
+                if (clientError || attempt >= attempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long transfer(final String methodKey, final Response response, final long offset,
+                          final WritableByteChannel target, final ProgressListener listener) throws IOException {
+        try {
+            if (response.status() < 200 || response.status() >= 300) {
+                throw FeignException.errorStatus(methodKey, response);
+            }
+            if (response.body() == null) {
+                return 0;
+            }
+
+            final long length = response.body().length() == null ? -1 : offset + response.body().length();
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            long written = 0;
+            try (InputStream in = response.body().asInputStream();
+                 ReadableByteChannel source = Channels.newChannel(in)) {
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        written += target.write(buffer);
+                    }
+                    buffer.clear();
+                    if (listener != null) {
+                        listener.progress(offset + written, length);
+                    }
+                }
+            }
+            return written;
+        } finally {
+            response.close();
+        }
+    }
+}
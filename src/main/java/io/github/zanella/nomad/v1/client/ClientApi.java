@@ -6,9 +6,11 @@ import io.github.zanella.nomad.v1.client.models.LogStream;
 import io.github.zanella.nomad.v1.client.models.Stats;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import feign.Param;
 import feign.RequestLine;
+import feign.Response;
 
 public interface ClientApi {
     String statsUrl = "/v1/client/stats";
@@ -42,10 +44,45 @@ public interface ClientApi {
     byte[] getAllocationFileContent(@Param("allocationId") String allocationId, @Param("path") String path,
                                     @Param("offset") int offset, @Param("limit") int limit);
 
+    String allocationFileReadUrl = "/v1/client/fs/readat/{allocationId}?path={path}&offset={offset}";
+
+    /**
+     * The file from {@code offset} to its end, unbuffered; the caller must close the response. Error statuses are
+     * not decoded. See {@link AllocationFileDownloader}.
+     */
+    @RequestLine("GET " + allocationFileReadUrl)
+    Response readAllocationFile(@Param("allocationId") String allocationId, @Param("path") String path,
+                                @Param("offset") long offset);
+
+    /**
+     * {@code limit} bytes of the file from {@code offset}, unbuffered; the caller must close the response. Error
+     * statuses are not decoded.
+     */
+    @RequestLine("GET " + allocationFileContentOffsetUrl)
+    Response readAllocationFile(@Param("allocationId") String allocationId, @Param("path") String path,
+                                @Param("offset") long offset, @Param("limit") long limit);
+
+    String allocationFileCatUrl = "/v1/client/fs/cat/{allocationId}?path={path}";
+
+    /**
+     * The whole file, unbuffered; the caller must close the response. Error statuses are not decoded.
+     */
+    @RequestLine("GET " + allocationFileCatUrl)
+    Response catAllocationFile(@Param("allocationId") String allocationId, @Param("path") String path);
+
     String allocationLogStreamUrl = "/v1/client/fs/logs/{allocationId}?task={task}&follow={follow}&type={type}&offset={offset}&origin={origin}&plain={plain}";
 
     @RequestLine("GET " + allocationLogStreamUrl)
     List<LogStream> getAllocationLogStreamsList(@Param("allocationId") String allocationId, @Param("task") String task,
                                                 @Param("follow") Boolean follow, @Param("type") LogStream.Type type,
                                                 @Param("offset") int offset, @Param("origin") LogStream.Origin origin, @Param("plain") Boolean plain);
+
+    /**
+     * Frames of the log, parsed one at a time as they arrive; with {@code follow} the stream only ends when it is
+     * closed. See {@link LogStreamPublisher} to have them pushed instead.
+     */
+    @RequestLine("GET " + allocationLogStreamUrl)
+    Stream<LogStream> streamAllocationLogs(@Param("allocationId") String allocationId, @Param("task") String task,
+                                           @Param("follow") Boolean follow, @Param("type") LogStream.Type type,
+                                           @Param("offset") int offset, @Param("origin") LogStream.Origin origin, @Param("plain") Boolean plain);
 }
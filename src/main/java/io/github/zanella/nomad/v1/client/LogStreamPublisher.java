@@ -0,0 +1,173 @@
+package io.github.zanella.nomad.v1.client;
+
+import io.github.zanella.nomad.v1.client.models.LogStream;
+import io.github.zanella.nomad.v1.transport.Transports;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Pushes the frames of an allocation's log to subscribers as they are parsed, following the
+ * {@code java.util.concurrent.Flow} contract: frames are only read from the socket while there is outstanding
+ * demand, so a slow subscriber throttles the agent through TCP instead of buffering, and cancelling closes the
+ * connection.
+ * <p>
+ * Each subscription opens its own request and reads it on one thread of the executor, which stays blocked on the
+ * socket for as long as the subscription lasts: following thousands of task logs takes as many threads, so pass an
+ * executor sized for them rather than the shared default. Heartbeat frames are skipped. A subscription the executor
+ * rejects gets the {@link RejectedExecutionException} through {@code onError}.
+ */
+public final class LogStreamPublisher {
+    public interface Subscriber {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(LogStream frame);
+
+        void onError(Throwable error);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    private final Supplier<Stream<LogStream>> frames;
+
+    private final Executor executor;
+
+    public LogStreamPublisher(ClientApi client, String allocationId, String task, boolean follow,
+                              LogStream.Type type, int offset, LogStream.Origin origin, Executor executor) {
+        this.frames = () -> client.streamAllocationLogs(allocationId, task, follow, type, offset, origin, false);
+        this.executor = executor;
+    }
+
+    /**
+     * Tails the log from its current end until cancelled.
+     */
+    public static LogStreamPublisher follow(ClientApi client, String allocationId, String task, LogStream.Type type) {
+        return new LogStreamPublisher(client, allocationId, task, true, type, 0, LogStream.Origin.end,
+            Transports.defaultExecutor());
+    }
+
+    public void subscribe(final Subscriber subscriber) {
+        final FrameSubscription subscription = new FrameSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        try {
+            executor.execute(subscription);
+        } catch (RejectedExecutionException e) {
+            if (!subscription.isCancelled()) {
+                subscription.cancel();
+                subscriber.onError(e);
+            }
+        }
+    }
+
+    private final class FrameSubscription implements Subscription, Runnable {
+        private final Subscriber subscriber;
+
+        private long demand;
+
+        private boolean cancelled;
+
+        private IllegalArgumentException invalidRequest;
+
+        private Stream<LogStream> stream;
+
+        FrameSubscription(final Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public synchronized void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " frames, must be positive");
+            } else {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public void cancel() {
+            final Stream<LogStream> open;
+            synchronized (this) {
+                cancelled = true;
+                open = stream;
+                notifyAll();
+            }
+            if (open != null) {
+                // only closes the body under a read waiting on the agent, the reading thread closes the parser
+                open.close();
+            }
+        }
+
+        @Override
+        public void run() {
+            try (Stream<LogStream> opened = frames.get()) {
+                synchronized (this) {
+                    if (cancelled) {
+                        return;
+                    }
+                    stream = opened;
+                }
+
+                final Iterator<LogStream> iterator = opened.iterator();
+                while (awaitDemand()) {
+                    if (!iterator.hasNext()) {
+                        if (!isCancelled()) {
+                            subscriber.onComplete();
+                        }
+                        return;
+                    }
+                    final LogStream frame = iterator.next();
+                    if (frame.getData() != null || frame.getFileEvent() != null) {
+                        consumeDemand();
+                        subscriber.onNext(frame);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!isCancelled()) {
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private boolean awaitDemand() {
+            final IllegalArgumentException invalid;
+            synchronized (this) {
+                while (demand == 0 && !cancelled && invalidRequest == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        cancelled = true;
+                    }
+                }
+                if (cancelled || invalidRequest == null) {
+                    return !cancelled;
+                }
+                invalid = invalidRequest;
+                cancelled = true;
+            }
+            subscriber.onError(invalid);
+            return false;
+        }
+
+        private synchronized void consumeDemand() {
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.zanella.nomad.v1.common.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of a blocking query: the decoded body together with the {@code X-Nomad-*} query metadata. Pass
+ * {@code index} to the next query to block until the result changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class QueryResult<T> {
+    T value;
+
+    /** X-Nomad-Index, the Raft index the result reflects. */
+    long index;
+
+    /** X-Nomad-KnownLeader */
+    boolean knownLeader;
+
+    /** X-Nomad-LastContact, milliseconds since the answering server last heard from the leader. */
+    long lastContact;
+}
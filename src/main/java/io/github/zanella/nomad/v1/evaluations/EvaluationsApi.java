@@ -1,8 +1,10 @@
 package io.github.zanella.nomad.v1.evaluations;
 
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 import io.github.zanella.nomad.v1.jobs.models.JobEvaluation;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import feign.Param;
 import feign.RequestLine;
@@ -13,8 +15,25 @@ public interface EvaluationsApi {
     @RequestLine("GET " + evaluationsUrl)
     List<JobEvaluation> getEvaluations();
 
+    String evaluationsBlockingUrl = evaluationsUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + evaluationsBlockingUrl)
+    QueryResult<List<JobEvaluation>> getEvaluations(@Param("index") long index, @Param("wait") String wait);
+
     String evaluationsForRegionUrl = evaluationsUrl + "?region={region}";
 
     @RequestLine("GET " + evaluationsForRegionUrl)
     List<JobEvaluation> getEvaluationsForRegion(@Param("region") String region);
+
+    String evaluationsForRegionBlockingUrl = evaluationsForRegionUrl + "&index={index}&wait={wait}";
+
+    @RequestLine("GET " + evaluationsForRegionBlockingUrl)
+    QueryResult<List<JobEvaluation>> getEvaluationsForRegion(@Param("region") String region, @Param("index") long index,
+                                                             @Param("wait") String wait);
+
+    @RequestLine("GET " + evaluationsUrl)
+    Stream<JobEvaluation> streamEvaluations();
+
+    @RequestLine("GET " + evaluationsForRegionUrl)
+    Stream<JobEvaluation> streamEvaluationsForRegion(@Param("region") String region);
 }
@@ -1,6 +1,7 @@
 package io.github.zanella.nomad.v1.jobs;
 
 import io.github.zanella.nomad.v1.common.models.Job;
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 import io.github.zanella.nomad.v1.jobs.models.JobAllocation;
 import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
 import io.github.zanella.nomad.v1.jobs.models.JobEvaluation;
@@ -16,16 +17,33 @@ public interface JobApi {
     @RequestLine("GET " + jobUrl)
     Job getJob(@Param("jobId") String jobId);
 
+    String jobBlockingUrl = jobUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + jobBlockingUrl)
+    QueryResult<Job> getJob(@Param("jobId") String jobId, @Param("index") long index, @Param("wait") String wait);
+
     String jobAllocationsUrl = jobUrl + "/allocations";
 
     @RequestLine("GET " + jobAllocationsUrl)
     List<JobAllocation> getJobAllocations(@Param("jobId") String jobId);
 
+    String jobAllocationsBlockingUrl = jobAllocationsUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + jobAllocationsBlockingUrl)
+    QueryResult<List<JobAllocation>> getJobAllocations(@Param("jobId") String jobId, @Param("index") long index,
+                                                       @Param("wait") String wait);
+
     String jobEvaluationsUrl = jobUrl + "/evaluations";
 
     @RequestLine("GET " + jobEvaluationsUrl)
     List<JobEvaluation> getJobEvaluations(@Param("jobId") String jobId);
 
+    String jobEvaluationsBlockingUrl = jobEvaluationsUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + jobEvaluationsBlockingUrl)
+    QueryResult<List<JobEvaluation>> getJobEvaluations(@Param("jobId") String jobId, @Param("index") long index,
+                                                       @Param("wait") String wait);
+
     String jobEvaluateUrl = jobUrl + "/evaluate";
 
     @RequestLine("PUT " + jobEvaluateUrl)
@@ -1,10 +1,12 @@
 package io.github.zanella.nomad.v1.jobs;
 
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
 import io.github.zanella.nomad.v1.jobs.models.JobSpec;
 import io.github.zanella.nomad.v1.jobs.models.JobSummary;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import feign.Param;
 import feign.RequestLine;
@@ -15,11 +17,28 @@ public interface JobsApi {
     @RequestLine("GET " + jobsUrl)
     List<JobSummary> getJobs();
 
+    String jobsBlockingUrl = jobsUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + jobsBlockingUrl)
+    QueryResult<List<JobSummary>> getJobs(@Param("index") long index, @Param("wait") String wait);
+
     String jobsForRegionUrl = jobsUrl + "?region={region}";
 
     @RequestLine("GET " + jobsForRegionUrl)
     List<JobSummary> getJobsForRegion(@Param("region") String region);
 
+    String jobsForRegionBlockingUrl = jobsForRegionUrl + "&index={index}&wait={wait}";
+
+    @RequestLine("GET " + jobsForRegionBlockingUrl)
+    QueryResult<List<JobSummary>> getJobsForRegion(@Param("region") String region, @Param("index") long index,
+                                                   @Param("wait") String wait);
+
+    @RequestLine("GET " + jobsUrl)
+    Stream<JobSummary> streamJobs();
+
+    @RequestLine("GET " + jobsForRegionUrl)
+    Stream<JobSummary> streamJobsForRegion(@Param("region") String region);
+
     @RequestLine("POST " + jobsUrl)
     JobEvalResult postJob(JobSpec jobSpec);
 }
@@ -0,0 +1,29 @@
+package io.github.zanella.nomad.v1.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class CallMetrics {
+    /** Request line template of the endpoint, e.g. {@code GET /v1/node/{nodeId}/allocations}. */
+    String endpoint;
+
+    /** HTTP status, or -1 when no response arrived. */
+    int status;
+
+    /** From the call to the response headers, or -1 when no response arrived. */
+    long timeToFirstByteNanos;
+
+    /** From the call to its result. */
+    long latencyNanos;
+
+    /** Body bytes received by the time the call returned, as sent on the wire; lazily decoded streams read on. */
+    long responseBytes;
+
+    /** Spent binding the body. */
+    long decodeNanos;
+
+    /** What the call threw, or {@code null}. */
+    Throwable error;
+}
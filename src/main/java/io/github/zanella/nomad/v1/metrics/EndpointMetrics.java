@@ -0,0 +1,118 @@
+package io.github.zanella.nomad.v1.metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link MetricsListener} keeping, for each endpoint, histograms of the latency, time to first byte and
+ * decode time, the bytes received and the calls by status.
+ * <p>
+ * {@link #scrape()} renders them in the Prometheus text format.
+ */
+public final class EndpointMetrics implements MetricsListener {
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void onCall(final CallMetrics call) {
+        final Endpoint endpoint = endpoints.computeIfAbsent(call.getEndpoint(), e -> new Endpoint());
+        endpoint.latency.record(call.getLatencyNanos());
+        if (call.getTimeToFirstByteNanos() >= 0) {
+            endpoint.timeToFirstByte.record(call.getTimeToFirstByteNanos());
+        }
+        endpoint.decode.record(call.getDecodeNanos());
+        endpoint.responseBytes.add(call.getResponseBytes());
+        endpoint.byStatus.computeIfAbsent(call.getStatus(), s -> new LongAdder()).increment();
+    }
+
+    /** Endpoint templates seen so far, with their metrics. */
+    public Map<String, Endpoint> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    /**
+     * Prometheus text exposition of every endpoint, in seconds and bytes, status -1 counting calls that got no
+     * response.
+     */
+    public String scrape() {
+        final StringBuilder text = new StringBuilder();
+        text.append("# TYPE nomad_client_latency_seconds summary\n");
+        getEndpoints().forEach((name, endpoint) -> summary(text, "nomad_client_latency_seconds", name, endpoint.latency));
+        text.append("# TYPE nomad_client_time_to_first_byte_seconds summary\n");
+        getEndpoints().forEach((name, endpoint) ->
+            summary(text, "nomad_client_time_to_first_byte_seconds", name, endpoint.timeToFirstByte));
+        text.append("# TYPE nomad_client_decode_seconds summary\n");
+        getEndpoints().forEach((name, endpoint) -> summary(text, "nomad_client_decode_seconds", name, endpoint.decode));
+        text.append("# TYPE nomad_client_response_bytes_total counter\n");
+        getEndpoints().forEach((name, endpoint) -> text.append("nomad_client_response_bytes_total{endpoint=\"")
+            .append(escape(name)).append("\"} ").append(endpoint.getResponseBytes()).append('\n'));
+        text.append("# TYPE nomad_client_calls_total counter\n");
+        getEndpoints().forEach((name, endpoint) -> endpoint.getCallsByStatus().forEach((status, calls) ->
+            text.append("nomad_client_calls_total{endpoint=\"").append(escape(name)).append("\",status=\"")
+                .append(status).append("\"} ").append(calls).append('\n')));
+        return text.toString();
+    }
+
+    private static void summary(final StringBuilder text, final String metric, final String endpoint,
+                                final LatencyHistogram histogram) {
+        final String label = "endpoint=\"" + escape(endpoint) + "\"";
+        for (double quantile : QUANTILES) {
+            text.append(metric).append('{').append(label).append(",quantile=\"").append(quantile).append("\"} ")
+                .append(seconds(histogram.getPercentile(quantile))).append('\n');
+        }
+        text.append(metric).append("_sum{").append(label).append("} ")
+            .append(seconds(histogram.getMean() * histogram.getCount())).append('\n');
+        text.append(metric).append("_count{").append(label).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static double seconds(final double nanos) {
+        return nanos / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static String escape(final String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    public static final class Endpoint {
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+
+        final LatencyHistogram decode = new LatencyHistogram();
+
+        final LongAdder responseBytes = new LongAdder();
+
+        final ConcurrentMap<Integer, LongAdder> byStatus = new ConcurrentHashMap<>();
+
+        /** Nanoseconds from the call to its result. */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /** Nanoseconds from the call to the response headers. */
+        public LatencyHistogram getTimeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+        /** Nanoseconds spent binding the body. */
+        public LatencyHistogram getDecode() {
+            return decode;
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        public SortedMap<Integer, Long> getCallsByStatus() {
+            final SortedMap<Integer, Long> calls = new TreeMap<>();
+            byStatus.forEach((status, count) -> calls.put(status, count.sum()));
+            return calls;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.zanella.nomad.v1.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, e.g. nanoseconds, in the spirit of HdrHistogram: values below 128 are
+ * counted exactly and larger ones in log-linear buckets 1/64 of their power of two wide, so any percentile is
+ * reported within 1.6% of the recorded value, over the whole {@code long} range, in a fixed 30 KB.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 64;
+
+    private static final int BUCKETS = (64 - 6) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(final long value) {
+        final long recorded = Math.max(0, value);
+        counts.incrementAndGet(indexOf(recorded));
+        count.increment();
+        sum.add(recorded);
+        max.accumulateAndGet(recorded, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        final long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Value below which the given fraction of the recorded values fall, e.g. {@code getPercentile(0.99)}; 0 when
+     * nothing was recorded.
+     */
+    public long getPercentile(final double fraction) {
+        final long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(max.get(), highestValueOf(i));
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets every recorded value, e.g. after each scrape. Values recorded meanwhile may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int indexOf(final long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        // value = sub << shift, with sub in [64, 128)
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestValueOf(final int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.zanella.nomad.v1.metrics;
+
+/**
+ * Told about every API call of a client, see {@link io.github.zanella.nomad.v1.V1Client.Builder#metrics}.
+ * <p>
+ * Runs on the thread that finished the call, so it must be quick and thread safe; what it throws is ignored.
+ */
+public interface MetricsListener {
+    void onCall(CallMetrics call);
+}
@@ -1,5 +1,6 @@
 package io.github.zanella.nomad.v1.nodes;
 
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
 import io.github.zanella.nomad.v1.nodes.models.NodeDrainEvalResult;
 import io.github.zanella.nomad.v1.nodes.models.NodeEvalResult;
@@ -16,16 +17,34 @@ public interface NodeApi {
     @RequestLine("GET " + nodeUrl)
     NodeInfo getNode(@Param("nodeId") String nodeId);
 
+    String nodeBlockingUrl = nodeUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + nodeBlockingUrl)
+    QueryResult<NodeInfo> getNode(@Param("nodeId") String nodeId, @Param("index") long index,
+                                  @Param("wait") String wait);
+
     String nodeOfRegionUrl = "/v1/node/{nodeId}?region={region}";
 
     @RequestLine("GET " + nodeOfRegionUrl)
     NodeInfo getNodeOfRegion(@Param("nodeId") String nodeId, @Param("region") String region);
 
+    String nodeOfRegionBlockingUrl = nodeOfRegionUrl + "&index={index}&wait={wait}";
+
+    @RequestLine("GET " + nodeOfRegionBlockingUrl)
+    QueryResult<NodeInfo> getNodeOfRegion(@Param("nodeId") String nodeId, @Param("region") String region,
+                                          @Param("index") long index, @Param("wait") String wait);
+
     String allocationsUrl = nodeUrl + "/allocations";
 
     @RequestLine("GET " + allocationsUrl)
     List<NodeAllocation> getNodeAllocations(@Param("nodeId") String nodeId);
 
+    String allocationsBlockingUrl = allocationsUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + allocationsBlockingUrl)
+    QueryResult<List<NodeAllocation>> getNodeAllocations(@Param("nodeId") String nodeId, @Param("index") long index,
+                                                         @Param("wait") String wait);
+
     String evaluateUrl = nodeUrl + "/evaluate";
 
     @RequestLine("PUT " + evaluateUrl)
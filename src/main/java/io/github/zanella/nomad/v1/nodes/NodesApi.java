@@ -1,8 +1,10 @@
 package io.github.zanella.nomad.v1.nodes;
 
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import feign.Param;
 import feign.RequestLine;
@@ -13,8 +15,25 @@ public interface NodesApi {
     @RequestLine("GET " + nodesUrl)
     List<NodeSummary> getNodes();
 
+    String nodesBlockingUrl = nodesUrl + "?index={index}&wait={wait}";
+
+    @RequestLine("GET " + nodesBlockingUrl)
+    QueryResult<List<NodeSummary>> getNodes(@Param("index") long index, @Param("wait") String wait);
+
     String nodesForRegionUrl = nodesUrl + "?region={region}";
 
     @RequestLine("GET " + nodesForRegionUrl)
     List<NodeSummary> getNodesForRegion(@Param("region") String region);
+
+    String nodesForRegionBlockingUrl = nodesForRegionUrl + "&index={index}&wait={wait}";
+
+    @RequestLine("GET " + nodesForRegionBlockingUrl)
+    QueryResult<List<NodeSummary>> getNodesForRegion(@Param("region") String region, @Param("index") long index,
+                                                     @Param("wait") String wait);
+
+    @RequestLine("GET " + nodesUrl)
+    Stream<NodeSummary> streamNodes();
+
+    @RequestLine("GET " + nodesForRegionUrl)
+    Stream<NodeSummary> streamNodesForRegion(@Param("region") String region);
 }
@@ -0,0 +1,342 @@
+package io.github.zanella.nomad.v1.transport;
+
+import io.github.zanella.nomad.v1.agent.AgentApi;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Answers repeated reads of rarely changing endpoints from memory, e.g. {@code /v1/node/{nodeId}} or
+ * {@code /v1/agent/self}.
+ * <p>
+ * Only the GETs under a path given a time to live with {@link #ttl(String, long, TimeUnit)} are cached, never
+ * blocking queries. An entry is fresh for its time to live; for as long again it is still answered, while a
+ * background request refreshes it, keeping the cached body when the {@code X-Nomad-Index} did not move. Older
+ * entries are fetched again as if they were missing. A write invalidates the cached reads of the paths it shares a
+ * prefix with, e.g. a drain of {@code /v1/node/{nodeId}}, when it is sent and again when it is answered; a read
+ * of those paths still in flight meanwhile is answered but not cached, so it cannot bring the pre-write body back.
+ * Bodies are kept up to {@code maxWeight} bytes in a {@link TinyLfuCache}, which keeps the most used ones.
+ */
+public class CachingTransport implements Transport {
+    public static final long DEFAULT_MAX_WEIGHT = 16 << 20;
+
+    public static final long DEFAULT_TTL_SECONDS = 5;
+
+    /** Guess of the average entry weight, to size the frequency sketch. */
+    private static final int AVERAGE_WEIGHT = 2048;
+
+    private final Transport delegate;
+
+    private final TinyLfuCache<String, Entry> cache;
+
+    private final ConcurrentMap<String, Long> ttls = new ConcurrentHashMap<>();
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** Token of the last read sent for each key, which may cache its answer until a write drops it. */
+    private final ConcurrentMap<String, Object> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong staleHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Caches nodes and evaluations for {@value #DEFAULT_TTL_SECONDS} seconds and the agent's own description for a
+     * minute. The allocations of a node change all the time and are not cached.
+     */
+    public CachingTransport(final Transport delegate) {
+        this(delegate, DEFAULT_MAX_WEIGHT);
+        ttl("/v1/node/", DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+        ttl("/v1/node/*/allocations", 0, TimeUnit.SECONDS);
+        ttl("/v1/evaluation/", DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+        ttl(AgentApi.selfUrl, 60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A cache of no endpoint yet, see {@link #ttl(String, long, TimeUnit)}.
+     *
+     * @param maxWeight bytes of response bodies kept
+     */
+    public CachingTransport(final Transport delegate, final long maxWeight) {
+        this.delegate = delegate;
+        this.cache = new TinyLfuCache<>(maxWeight, (int) Math.min(Integer.MAX_VALUE, maxWeight / AVERAGE_WEIGHT));
+    }
+
+    /**
+     * Caches the reads of the paths starting with {@code pathPrefix}, e.g. {@code "/v1/node/"}, the longest
+     * matching prefix winning; a {@code *} stands for one path segment and a {@code ttl} of 0 stops caching them,
+     * e.g. {@code ttl("/v1/job/*}{@code /allocations", 0, TimeUnit.SECONDS)}.
+     */
+    public CachingTransport ttl(final String pathPrefix, final long ttl, final TimeUnit unit) {
+        ttls.put(pathPrefix, unit.toNanos(ttl));
+        return this;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Hits on an expired entry, answered while it was refreshed. */
+    public long getStaleHitCount() {
+        return staleHits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Bytes of the cached bodies. */
+    public long getWeightedSize() {
+        return cache.weightedSize();
+    }
+
+    /**
+     * Forgets every cached response.
+     */
+    public void invalidateAll() {
+        pending.clear();
+        cache.removeIf(key -> true);
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        try {
+            return executeAsync(request, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        final String path = Routing.pathOf(request.url());
+        if (!Routing.isRead(request)) {
+            final String written = withoutQuery(path);
+            invalidate(written);
+            final CompletableFuture<Response> exchange = delegate.executeAsync(request, options);
+            // reads sent while the write was in flight may have cached the previous state
+            exchange.whenComplete((response, error) -> invalidate(written));
+            return exchange;
+        }
+        final long ttl = "GET".equals(request.method()) && !path.contains("index=") ? ttlOf(path) : 0;
+        if (ttl <= 0) {
+            return delegate.executeAsync(request, options);
+        }
+
+        final String key = request.url() + ' ' + request.headers();
+        final Entry cached = cache.get(key);
+        final long now = System.nanoTime();
+        if (cached != null && now - cached.storedAt < ttl) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
+        if (cached != null && now - cached.storedAt < 2 * ttl) {
+            staleHits.incrementAndGet();
+            refresh(key, request, options, cached);
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
+
+        misses.incrementAndGet();
+        final Object token = new Object();
+        pending.put(key, token);
+        final CompletableFuture<Response> exchange = delegate.executeAsync(request, options);
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                pending.remove(key, token);
+                result.completeExceptionally(Routing.unwrap(error));
+                return;
+            }
+            final Response answer;
+            try {
+                answer = store(key, token, response, null);
+            } catch (Throwable e) {
+                // thrown out of whenComplete, it would be lost and leave the caller waiting
+                pending.remove(key, token);
+                result.completeExceptionally(e);
+                return;
+            }
+            if (!result.complete(answer)) {
+                Util.ensureClosed(answer.body());
+            }
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private void refresh(final String key, final Request request, final Request.Options options, final Entry stale) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        final Object token = new Object();
+        pending.put(key, token);
+        delegate.executeAsync(request, options).whenComplete((response, error) -> {
+            try {
+                if (response != null) {
+                    Util.ensureClosed(store(key, token, response, stale).body());
+                } else {
+                    pending.remove(key, token);
+                }
+            } catch (IOException | RuntimeException e) {
+                // the stale entry expires on its own
+                pending.remove(key, token);
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Caches a successful answer, reusing {@code previous} when the index did not move, and returns the answer,
+     * read into memory if it was cached. The entry is dropped again when the read was invalidated, or superseded,
+     * since {@code token} was registered.
+     */
+    private Response store(final String key, final Object token, final Response response, final Entry previous)
+        throws IOException {
+        if (response.status() != 200 || response.body() == null) {
+            pending.remove(key, token);
+            return response;
+        }
+        final long index = index(response.headers());
+        final Entry entry;
+        if (previous != null && index > 0 && index == previous.index) {
+            Util.ensureClosed(response.body());
+            entry = previous.renewed();
+        } else {
+            try {
+                entry = new Entry(response.status(), response.reason(), response.headers(),
+                    Util.toByteArray(response.body().asInputStream()), index);
+            } catch (IOException e) {
+                pending.remove(key, token);
+                throw e;
+            } finally {
+                Util.ensureClosed(response.body());
+            }
+        }
+        // put before checking the token: a write drops the tokens before the entries, so either the write removes
+        // this entry or this check finds the token gone
+        cache.put(key, entry, entry.body.length + key.length());
+        if (!pending.remove(key, token)) {
+            cache.removeIf(key::equals);
+        }
+        return entry.toResponse();
+    }
+
+    /**
+     * Drops the cached and pending reads of the paths sharing a prefix with {@code written}.
+     */
+    private void invalidate(final String written) {
+        final Predicate<String> stale = key -> {
+            final String cached = withoutQuery(Routing.pathOf(key.substring(0, key.indexOf(' '))));
+            return cached.startsWith(written) || written.startsWith(cached);
+        };
+        pending.keySet().removeIf(stale);
+        cache.removeIf(stale);
+    }
+
+    private long ttlOf(final String path) {
+        String longest = null;
+        for (String prefix : ttls.keySet()) {
+            if (matches(path, prefix) && (longest == null || prefix.length() > longest.length())) {
+                longest = prefix;
+            }
+        }
+        return longest == null ? 0 : ttls.get(longest);
+    }
+
+    /**
+     * Whether {@code path} starts with {@code prefix}, a {@code *} in the prefix standing for one path segment.
+     */
+    private static boolean matches(final String path, final String prefix) {
+        int position = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = prefix.charAt(i);
+            if (c == '*') {
+                while (position < path.length() && path.charAt(position) != '/' && path.charAt(position) != '?') {
+                    position++;
+                }
+            } else if (position >= path.length() || path.charAt(position++) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long index(final Map<String, Collection<String>> headers) {
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if ("X-Nomad-Index".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                try {
+                    return Long.parseLong(header.getValue().iterator().next());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static String withoutQuery(final String path) {
+        final int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+
+    private static final class Entry {
+        final int status;
+
+        final String reason;
+
+        final Map<String, Collection<String>> headers;
+
+        final byte[] body;
+
+        final long index;
+
+        final long storedAt = System.nanoTime();
+
+        Entry(final int status, final String reason, final Map<String, Collection<String>> headers,
+              final byte[] body, final long index) {
+            this.status = status;
+            this.reason = reason;
+            this.headers = headers;
+            this.body = body;
+            this.index = index;
+        }
+
+        Entry renewed() {
+            return new Entry(status, reason, headers, body, index);
+        }
+
+        Response toResponse() {
+            return Response.create(status, reason, headers, body);
+        }
+    }
+}
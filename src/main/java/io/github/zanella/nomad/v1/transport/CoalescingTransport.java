@@ -0,0 +1,195 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Collapses identical concurrent requests into one exchange: a GET sent while the same GET, same URL and headers,
+ * is still in flight waits for that exchange instead of starting another one.
+ * <p>
+ * A response nobody else waited for is handed over as is; otherwise its body is read once and every caller gets a
+ * copy, which it decodes on its own, so callers never share the decoded models. Cancelling a call only aborts the
+ * exchange when no other caller waits for it. By default the {@code /v1/client} endpoints, which stream logs and
+ * files, are not coalesced.
+ */
+public class CoalescingTransport implements Transport {
+    public static final Predicate<Request> READS = request -> "GET".equals(request.method())
+        && !request.url().contains("/v1/client/");
+
+    private final Transport delegate;
+
+    private final Predicate<Request> coalescable;
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong exchanges = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public CoalescingTransport(final Transport delegate) {
+        this(delegate, READS);
+    }
+
+    /**
+     * @param coalescable requests that may share their exchange with an identical one
+     */
+    public CoalescingTransport(final Transport delegate, final Predicate<Request> coalescable) {
+        this.delegate = delegate;
+        this.coalescable = coalescable;
+    }
+
+    /** Exchanges started for coalescable requests. */
+    public long getExchangeCount() {
+        return exchanges.get();
+    }
+
+    /** Calls answered by another call's exchange. */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        if (!coalescable.test(request)) {
+            return delegate.execute(request, options);
+        }
+        try {
+            return executeAsync(request, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        if (!coalescable.test(request)) {
+            return delegate.executeAsync(request, options);
+        }
+        final String key = request.method() + ' ' + request.url() + ' ' + request.headers();
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        while (true) {
+            final Flight created = new Flight();
+            final Flight flight = inFlight.computeIfAbsent(key, k -> created);
+            if (flight == created) {
+                flight.join(result);
+                exchanges.incrementAndGet();
+                flight.start(delegate.executeAsync(request, options), key);
+                break;
+            }
+            if (flight.join(result)) {
+                coalesced.incrementAndGet();
+                break;
+            }
+            // answered or abandoned meanwhile, too late to share it
+            inFlight.remove(key, flight);
+        }
+        return result;
+    }
+
+    private final class Flight {
+        private final List<CompletableFuture<Response>> callers = new ArrayList<>();
+
+        private CompletableFuture<Response> exchange;
+
+        private boolean answered;
+
+        /** Every caller cancelled and the exchange is being aborted; newcomers start their own. */
+        private boolean abandoned;
+
+        private int cancelled;
+
+        synchronized boolean join(final CompletableFuture<Response> caller) {
+            if (answered || abandoned) {
+                return false;
+            }
+            callers.add(caller);
+            caller.whenComplete((response, error) -> {
+                if (caller.isCancelled()) {
+                    leave();
+                }
+            });
+            return true;
+        }
+
+        void start(final CompletableFuture<Response> exchange, final String key) {
+            final boolean abort;
+            synchronized (this) {
+                this.exchange = exchange;
+                abort = abandoned;
+            }
+            if (abort) {
+                exchange.cancel(true);
+            }
+            exchange.whenComplete((response, error) -> answer(key, response, error));
+        }
+
+        private void leave() {
+            final CompletableFuture<Response> abort;
+            synchronized (this) {
+                cancelled++;
+                if (answered || cancelled < callers.size()) {
+                    return;
+                }
+                abandoned = true;
+                abort = exchange;
+            }
+            if (abort != null) {
+                abort.cancel(true);
+            }
+        }
+
+        private void answer(final String key, final Response response, final Throwable error) {
+            inFlight.remove(key, this);
+            final List<CompletableFuture<Response>> waiting;
+            synchronized (this) {
+                answered = true;
+                waiting = new ArrayList<>(callers);
+            }
+
+            if (error != null) {
+                final Throwable cause = Routing.unwrap(error);
+                waiting.forEach(caller -> caller.completeExceptionally(cause));
+                return;
+            }
+            if (waiting.size() == 1) {
+                if (!waiting.get(0).complete(response)) {
+                    Util.ensureClosed(response.body());
+                }
+                return;
+            }
+
+            final byte[] body;
+            try {
+                body = response.body() == null ? null : Util.toByteArray(response.body().asInputStream());
+            } catch (IOException e) {
+                waiting.forEach(caller -> caller.completeExceptionally(e));
+                return;
+            } finally {
+                Util.ensureClosed(response.body());
+            }
+            waiting.forEach(caller ->
+                caller.complete(Response.create(response.status(), response.reason(), response.headers(), body)));
+        }
+    }
+}
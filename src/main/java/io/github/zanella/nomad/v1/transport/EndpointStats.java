@@ -0,0 +1,19 @@
+package io.github.zanella.nomad.v1.transport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class EndpointStats {
+    /** Base URL of the server's HTTP API. */
+    String address;
+
+    /** Decayed moving average of the response time. */
+    double latencyMillis;
+
+    int inFlight;
+
+    /** Whether the server is temporarily skipped for failing or being much slower than the others. */
+    boolean ejected;
+}
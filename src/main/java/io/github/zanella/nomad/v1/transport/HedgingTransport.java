@@ -0,0 +1,202 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Hedges idempotent reads: when a request has not been answered after the given percentile of the recent response
+ * times, the same request is sent again and whichever answers first wins, the other one being cancelled.
+ * <p>
+ * Hedges are limited to {@code maxHedgeRatio} of the requests, so a slow cluster does not get twice the load. The
+ * duplicate goes through the wrapped transport as a new request. A {@link LoadBalancingTransport} then likely sends
+ * it to another server, since the first one is weighted by the request it still holds, but nothing excludes that
+ * server from the pick. By default GETs are hedged, except blocking queries, which are meant to hang, and the
+ * endpoints answered by the targeted agent itself.
+ */
+public class HedgingTransport implements Transport {
+    public static final double DEFAULT_PERCENTILE = 0.95;
+
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 10;
+
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+
+    public static final Predicate<Request> IDEMPOTENT_READS = request -> "GET".equals(request.method())
+        && Routing.isRoutable(request) && !request.url().contains("index=");
+
+    /** Hedges that can be spent at once after a quiet period. */
+    private static final double MAX_BUDGET = 10;
+
+    private static final int SAMPLES = 1024;
+
+    private static final int MIN_SAMPLES = 32;
+
+    private final Transport delegate;
+
+    private final double percentile;
+
+    private final long minDelayNanos;
+
+    private final double maxHedgeRatio;
+
+    private final Predicate<Request> hedgeable;
+
+    private final long[] samples = new long[SAMPLES];
+
+    /** Responses timed so far, guarded by {@code samples}. */
+    private long sampleCount;
+
+    private volatile long delayNanos;
+
+    private double budget;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong hedges = new AtomicLong();
+
+    public HedgingTransport(final Transport delegate) {
+        this(delegate, DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_MAX_HEDGE_RATIO,
+            IDEMPOTENT_READS);
+    }
+
+    /**
+     * @param percentile    of the recent response times to wait before hedging, e.g. 0.95
+     * @param minDelay      lower bound of the delay, also used until enough responses have been timed
+     * @param maxHedgeRatio hedges allowed per request, e.g. 0.05
+     * @param hedgeable     requests that may be sent twice
+     */
+    public HedgingTransport(final Transport delegate, final double percentile, final long minDelay,
+                            final TimeUnit unit, final double maxHedgeRatio, final Predicate<Request> hedgeable) {
+        this.delegate = delegate;
+        this.percentile = percentile;
+        this.minDelayNanos = unit.toNanos(minDelay);
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.hedgeable = hedgeable;
+        this.delayNanos = minDelayNanos;
+    }
+
+    /** Hedgeable requests so far. */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /** Duplicates sent so far. */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /** Current wait before hedging. */
+    public long getDelay(final TimeUnit unit) {
+        return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        if (!hedgeable.test(request)) {
+            return delegate.execute(request, options);
+        }
+        try {
+            return executeAsync(request, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        if (!hedgeable.test(request)) {
+            return delegate.executeAsync(request, options);
+        }
+        requests.incrementAndGet();
+        earn();
+
+        final long start = System.nanoTime();
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        final CompletableFuture<Response> primary = delegate.executeAsync(request, options);
+        final AtomicReference<CompletableFuture<Response>> hedge = new AtomicReference<>();
+
+        final ScheduledFuture<?> timer = Transports.scheduler().schedule(() -> {
+            if (!result.isDone() && spend()) {
+                hedges.incrementAndGet();
+                final CompletableFuture<Response> duplicate = delegate.executeAsync(request, options);
+                hedge.set(duplicate);
+                duplicate.whenComplete((response, error) -> settle(result, response, error, primary, start));
+                if (result.isDone()) {
+                    duplicate.cancel(true);
+                }
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+
+        primary.whenComplete((response, error) -> settle(result, response, error, hedge.get(), start));
+        result.whenComplete((response, error) -> {
+            // cancels the loser, or both attempts when the caller gave up
+            timer.cancel(false);
+            primary.cancel(true);
+            final CompletableFuture<Response> duplicate = hedge.get();
+            if (duplicate != null) {
+                duplicate.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private void settle(final CompletableFuture<Response> result, final Response response, final Throwable error,
+                        final CompletableFuture<Response> other, final long start) {
+        if (error == null) {
+            if (result.complete(response)) {
+                record(System.nanoTime() - start);
+            } else {
+                Util.ensureClosed(response.body());
+            }
+        } else if (other == null || other.isDone()) {
+            // nothing left to wait for
+            result.completeExceptionally(Routing.unwrap(error));
+        }
+    }
+
+    private synchronized void earn() {
+        budget = Math.min(MAX_BUDGET, budget + maxHedgeRatio);
+    }
+
+    private synchronized boolean spend() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+
+    private void record(final long elapsedNanos) {
+        final long[] sorted;
+        synchronized (samples) {
+            samples[(int) (sampleCount++ % SAMPLES)] = elapsedNanos;
+            // recomputing the percentile every 32 responses is plenty
+            if (sampleCount < MIN_SAMPLES || sampleCount % 32 != 0) {
+                return;
+            }
+            sorted = Arrays.copyOf(samples, (int) Math.min(sampleCount, SAMPLES));
+        }
+        Arrays.sort(sorted);
+        delayNanos = Math.max(minDelayNanos, sorted[(int) Math.min(sorted.length - 1, percentile * sorted.length)]);
+    }
+}
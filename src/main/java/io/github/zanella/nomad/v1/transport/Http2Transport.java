@@ -0,0 +1,81 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * Transport that multiplexes concurrent exchanges, including long lived log streams, over a single HTTP/2
+ * connection per agent instead of holding one socket per exchange.
+ * <p>
+ * Over TLS, HTTP/2 is negotiated with ALPN and the transport falls back to HTTP/1.1 when the agent or the JVM
+ * does not support it; {@link #getHttp2Connections()} tells which one was used. With {@code priorKnowledge}
+ * cleartext HTTP/2 (h2c) is spoken directly, for agents behind a proxy that supports it.
+ */
+public class Http2Transport extends PooledTransport {
+    public static final int DEFAULT_MAX_STREAMS = 1024;
+
+    public static final int DEFAULT_MAX_STREAMS_PER_HOST = 256;
+
+    public static final long PING_INTERVAL_SECONDS = 30;
+
+    private final ProtocolCounter protocolCounter;
+
+    public Http2Transport() {
+        this(false);
+    }
+
+    public Http2Transport(final boolean priorKnowledge) {
+        this(priorKnowledge, DEFAULT_MAX_STREAMS, DEFAULT_MAX_STREAMS_PER_HOST);
+    }
+
+    public Http2Transport(final boolean priorKnowledge, final int maxStreams, final int maxStreamsPerHost) {
+        this(priorKnowledge, maxStreams, maxStreamsPerHost, new ProtocolCounter());
+    }
+
+    private Http2Transport(final boolean priorKnowledge, final int maxStreams, final int maxStreamsPerHost,
+                           final ProtocolCounter protocolCounter) {
+        super(newClientBuilder(maxStreams, maxStreamsPerHost, DEFAULT_IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .protocols(priorKnowledge
+                ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)
+                : Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .pingInterval(PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+            .eventListener(protocolCounter)
+            .build());
+
+        this.protocolCounter = protocolCounter;
+    }
+
+    /** Connections opened so far that speak HTTP/2. */
+    public long getHttp2Connections() {
+        return protocolCounter.http2.get();
+    }
+
+    /** Connections opened so far that fell back to HTTP/1.x. */
+    public long getHttp1Connections() {
+        return protocolCounter.http1.get();
+    }
+
+    private static final class ProtocolCounter extends EventListener {
+        final AtomicLong http2 = new AtomicLong();
+
+        final AtomicLong http1 = new AtomicLong();
+
+        @Override
+        public void connectEnd(final Call call, final InetSocketAddress inetSocketAddress, final Proxy proxy,
+                               final Protocol protocol) {
+            if (protocol == Protocol.HTTP_2 || protocol == Protocol.H2_PRIOR_KNOWLEDGE) {
+                http2.incrementAndGet();
+            } else {
+                http1.incrementAndGet();
+            }
+        }
+    }
+}
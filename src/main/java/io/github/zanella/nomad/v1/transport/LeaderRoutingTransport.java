@@ -0,0 +1,218 @@
+package io.github.zanella.nomad.v1.transport;
+
+import io.github.zanella.nomad.v1.status.StatusApi;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Sends writes to the current leader and spreads reads over all the servers with {@code ?stale}, so reads no longer
+ * queue behind the leader. Wraps the transport that actually performs the exchanges.
+ * <p>
+ * The servers are learnt from the agent the client targets, through {@code /v1/status/leader} and
+ * {@code /v1/status/peers}, and looked up again every {@code refreshAfter} or as soon as a server answers that
+ * there is no leader, redirects, or cannot be reached; the failed call is then retried once. Peers are reported
+ * with their RPC port, so they are contacted on the agent's HTTP port unless another one is given. The
+ * {@code /v1/client}, {@code /v1/agent} and {@code /v1/status} endpoints are answered by the targeted agent itself
+ * and are never rerouted.
+ */
+public class LeaderRoutingTransport implements Transport {
+    public static final long DEFAULT_REFRESH_AFTER_SECONDS = 30;
+
+    private final Transport delegate;
+
+    private final int httpPort;
+
+    private final long refreshAfterNanos;
+
+    private final AtomicInteger nextPeer = new AtomicInteger();
+
+    private final ConcurrentMap<String, Servers> servers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<Servers>> lookups = new ConcurrentHashMap<>();
+
+    public LeaderRoutingTransport(final Transport delegate) {
+        this(delegate, -1, DEFAULT_REFRESH_AFTER_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param httpPort port of the servers' HTTP API, or -1 for the port of the targeted agent
+     */
+    public LeaderRoutingTransport(final Transport delegate, final int httpPort, final long refreshAfter,
+                                  final TimeUnit unit) {
+        this.delegate = delegate;
+        this.httpPort = httpPort;
+        this.refreshAfterNanos = unit.toNanos(refreshAfter);
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        try {
+            return executeAsync(request, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        if (!Routing.isRoutable(request)) {
+            return delegate.executeAsync(request, options);
+        }
+
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<?>> exchange = new AtomicReference<>();
+        result.whenComplete((response, error) -> {
+            final CompletableFuture<?> current = exchange.get();
+            if (result.isCancelled() && current != null) {
+                current.cancel(true);
+            }
+        });
+        attempt(request, options, Routing.agentOf(request), true, result, exchange);
+        return result;
+    }
+
+    /**
+     * Forgets the servers learnt from every agent, so they are looked up again on the next call.
+     */
+    public void refresh() {
+        servers.clear();
+    }
+
+    private void attempt(final Request request, final Request.Options options, final String agent,
+                         final boolean mayRetry, final CompletableFuture<Response> result,
+                         final AtomicReference<CompletableFuture<?>> exchange) {
+        servers(agent, options).whenComplete((known, lookupError) -> {
+            if (result.isDone()) {
+                return;
+            }
+            final boolean write = !Routing.isRead(request);
+            final String target = lookupError != null ? agent : known.pick(write, nextPeer);
+
+            final CompletableFuture<Response> call = delegate.executeAsync(Routing.rebase(request, target, !write), options);
+            exchange.set(call);
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+            call.whenComplete((response, error) -> {
+                Response answer = response;
+                boolean stale = lookupError == null && mayRetry;
+                try {
+                    if (stale) {
+                        if (error != null) {
+                            // a write may have reached the server unless the connection was refused
+                            stale = !write || Routing.causedBy(error, ConnectException.class);
+                        } else {
+                            answer = buffered(response);
+                            stale = leaderChanged(answer);
+                        }
+                    }
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+
+                if (stale) {
+                    servers.remove(agent, known);
+                    if (answer != null) {
+                        Util.ensureClosed(answer.body());
+                    }
+                    attempt(request, options, agent, false, result, exchange);
+                } else if (error != null) {
+                    result.completeExceptionally(Routing.unwrap(error));
+                } else if (!result.complete(answer)) {
+                    Util.ensureClosed(answer.body());
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<Servers> servers(final String agent, final Request.Options options) {
+        final Servers known = servers.get(agent);
+        if (known != null && System.nanoTime() - known.fetchedAt < refreshAfterNanos) {
+            return CompletableFuture.completedFuture(known);
+        }
+        final CompletableFuture<Servers> lookup = lookups.computeIfAbsent(agent, a -> {
+            final CompletableFuture<String> leader = Routing.get(delegate, a + StatusApi.leaderUrl, options,
+                String.class);
+            final CompletableFuture<String[]> peers = Routing.get(delegate, a + StatusApi.peersUrl, options,
+                String[].class);
+            return leader.thenCombine(peers, (leaderAddress, peerAddresses) ->
+                new Servers(agent, httpPort, leaderAddress, peerAddresses));
+        });
+        lookup.whenComplete((found, error) -> {
+            lookups.remove(agent, lookup);
+            if (found != null) {
+                servers.put(agent, found);
+            }
+        });
+        return lookup;
+    }
+
+    private static Response buffered(final Response response) throws IOException {
+        if (response.status() < 500 || response.body() == null) {
+            return response;
+        }
+        try {
+            return Response.create(response.status(), response.reason(), response.headers(),
+                Util.toByteArray(response.body().asInputStream()));
+        } finally {
+            Util.ensureClosed(response.body());
+        }
+    }
+
+    private static boolean leaderChanged(final Response response) throws IOException {
+        if (response.status() >= 300 && response.status() < 400) {
+            return true;
+        }
+        if (response.status() >= 500 && response.body() != null) {
+            final String body = Util.toString(response.body().asReader()).toLowerCase(Locale.ROOT);
+            return body.contains("no cluster leader") || body.contains("no leader");
+        }
+        return false;
+    }
+
+    private static final class Servers {
+        final long fetchedAt = System.nanoTime();
+
+        final String leader;
+
+        final String[] peers;
+
+        Servers(final String agent, final int httpPort, final String leader, final String[] peers) {
+            this.leader = leader == null || leader.isEmpty() ? agent : Routing.httpBase(agent, leader, httpPort);
+
+            this.peers = new String[peers == null || peers.length == 0 ? 1 : peers.length];
+            for (int i = 0; i < this.peers.length; i++) {
+                this.peers[i] = peers == null || peers.length == 0 ? agent
+                    : Routing.httpBase(agent, peers[i], httpPort);
+            }
+        }
+
+        String pick(final boolean write, final AtomicInteger nextPeer) {
+            return write ? leader : peers[Math.floorMod(nextPeer.getAndIncrement(), peers.length)];
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package io.github.zanella.nomad.v1.transport;
+
+import io.github.zanella.nomad.v1.agent.AgentApi;
+import io.github.zanella.nomad.v1.status.StatusApi;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Spreads requests over all the servers of the cluster, picking for each request the better of two random servers
+ * by their moving average response time weighted by their requests in flight ("power of two choices").
+ * <p>
+ * The servers are learnt from the agent the client targets through {@code /v1/agent/servers}, or
+ * {@code /v1/status/peers} when the agent is a server, and looked up again every {@code refreshAfter}; they are
+ * contacted on the agent's HTTP port unless another one is given. A server that fails
+ * {@link #FAILURES_TO_EJECT} times in a row, or whose average gets {@link #SLOW_FACTOR} times the median of the
+ * others that answered lately, at least two of them, is skipped for a while, at most half the servers at once.
+ * Blocking queries ({@code ?index=}) are held by the server on purpose, so their response times are left out of the
+ * averages. Reads that fail, and writes whose connection was refused, are retried once on another server. The
+ * {@code /v1/client}, {@code /v1/agent} and {@code /v1/status} endpoints are answered by the targeted agent itself
+ * and are never rerouted.
+ */
+public class LoadBalancingTransport implements Transport {
+    public static final long DEFAULT_REFRESH_AFTER_SECONDS = 30;
+
+    public static final int FAILURES_TO_EJECT = 3;
+
+    public static final double SLOW_FACTOR = 4;
+
+    private static final long EJECTION_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final long MAX_EJECTION_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /** How long a latency sample takes to lose two thirds of its weight; idle servers get probed again. */
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /** Age past which a server's average no longer counts in the median the others are compared to. */
+    private static final long SAMPLE_LIFETIME_NANOS = 3 * DECAY_NANOS;
+
+    private final Transport delegate;
+
+    private final int httpPort;
+
+    private final boolean staleReads;
+
+    private final long refreshAfterNanos;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Servers> servers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<Servers>> lookups = new ConcurrentHashMap<>();
+
+    public LoadBalancingTransport(final Transport delegate) {
+        this(delegate, -1, false, DEFAULT_REFRESH_AFTER_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param httpPort   port of the servers' HTTP API, or -1 for the port of the targeted agent
+     * @param staleReads whether reads may be answered by followers, with {@code ?stale}, instead of being forwarded
+     *                   to the leader
+     */
+    public LoadBalancingTransport(final Transport delegate, final int httpPort, final boolean staleReads,
+                                  final long refreshAfter, final TimeUnit unit) {
+        this.delegate = delegate;
+        this.httpPort = httpPort;
+        this.staleReads = staleReads;
+        this.refreshAfterNanos = unit.toNanos(refreshAfter);
+    }
+
+    public List<EndpointStats> getStats() {
+        final long now = System.nanoTime();
+        final List<EndpointStats> stats = new ArrayList<>();
+        for (Endpoint endpoint : endpoints.values()) {
+            stats.add(new EndpointStats(endpoint.address, endpoint.latency(now) / 1e6, endpoint.inFlight.get(),
+                endpoint.isEjected(now)));
+        }
+        return stats;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        try {
+            return executeAsync(request, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        if (!Routing.isRoutable(request)) {
+            return delegate.executeAsync(request, options);
+        }
+
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<?>> exchange = new AtomicReference<>();
+        result.whenComplete((response, error) -> {
+            final CompletableFuture<?> current = exchange.get();
+            if (result.isCancelled() && current != null) {
+                current.cancel(true);
+            }
+        });
+
+        final String agent = Routing.agentOf(request);
+        servers(agent, options).whenComplete((known, lookupError) -> {
+            if (lookupError != null) {
+                // the cluster is unknown, stick to the agent
+                final CompletableFuture<Response> call = delegate.executeAsync(request, options);
+                exchange.set(call);
+                if (result.isCancelled()) {
+                    call.cancel(true);
+                }
+                call.whenComplete((response, error) -> complete(result, response, error));
+            } else {
+                attempt(request, options, known, null, result, exchange);
+            }
+        });
+        return result;
+    }
+
+    private void attempt(final Request request, final Request.Options options, final Servers known,
+                         final Endpoint failed, final CompletableFuture<Response> result,
+                         final AtomicReference<CompletableFuture<?>> exchange) {
+        if (result.isDone()) {
+            return;
+        }
+        final boolean read = Routing.isRead(request);
+        final Endpoint endpoint = pick(known.endpoints, failed);
+        final long start = System.nanoTime();
+        endpoint.inFlight.incrementAndGet();
+
+        final CompletableFuture<Response> call = delegate.executeAsync(
+            Routing.rebase(request, endpoint.address, read && staleReads), options);
+        exchange.set(call);
+        if (result.isCancelled()) {
+            call.cancel(true);
+        }
+        call.whenComplete((response, error) -> {
+            endpoint.inFlight.decrementAndGet();
+            final long now = System.nanoTime();
+            final boolean serverError = response != null && response.status() >= 500;
+            if (error != null || serverError) {
+                if (!result.isCancelled()) {
+                    endpoint.failed(now, known.endpoints);
+                }
+            } else if (Routing.isBlockingQuery(request)) {
+                endpoint.answered();
+            } else {
+                endpoint.succeeded(now, now - start, known.endpoints);
+            }
+
+            final boolean retry = failed == null && known.endpoints.length > 1
+                && (read ? error != null || serverError : Routing.causedBy(error, ConnectException.class));
+            if (retry) {
+                if (response != null) {
+                    Util.ensureClosed(response.body());
+                }
+                attempt(request, options, known, endpoint, result, exchange);
+            } else {
+                complete(result, response, error);
+            }
+        });
+    }
+
+    private static void complete(final CompletableFuture<Response> result, final Response response,
+                                 final Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(Routing.unwrap(error));
+        } else if (!result.complete(response)) {
+            Util.ensureClosed(response.body());
+        }
+    }
+
+    /**
+     * Power of two choices among the servers that are not ejected, avoiding {@code excluded}.
+     */
+    private static Endpoint pick(final Endpoint[] candidates, final Endpoint excluded) {
+        final long now = System.nanoTime();
+        final List<Endpoint> available = new ArrayList<>(candidates.length);
+        for (Endpoint endpoint : candidates) {
+            if (endpoint != excluded && !endpoint.isEjected(now)) {
+                available.add(endpoint);
+            }
+        }
+        if (available.isEmpty()) {
+            // everything is ejected, fall back to the one coming back first
+            Endpoint soonest = candidates[0];
+            for (Endpoint endpoint : candidates) {
+                if (endpoint != excluded && (soonest == excluded || endpoint.ejectedUntil - soonest.ejectedUntil < 0)) {
+                    soonest = endpoint;
+                }
+            }
+            return soonest;
+        }
+        if (available.size() == 1) {
+            return available.get(0);
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(available.size());
+        final int second = (first + 1 + random.nextInt(available.size() - 1)) % available.size();
+        final Endpoint a = available.get(first);
+        final Endpoint b = available.get(second);
+        return a.cost(now) <= b.cost(now) ? a : b;
+    }
+
+    private CompletableFuture<Servers> servers(final String agent, final Request.Options options) {
+        final Servers known = servers.get(agent);
+        if (known != null && System.nanoTime() - known.fetchedAt < refreshAfterNanos) {
+            return CompletableFuture.completedFuture(known);
+        }
+        final CompletableFuture<Servers> lookup = lookups.computeIfAbsent(agent, a ->
+            Routing.get(delegate, a + AgentApi.serversUrl, options, String[].class)
+                .handle((addresses, error) -> addresses != null && addresses.length > 0
+                    ? CompletableFuture.completedFuture(addresses)
+                    : Routing.get(delegate, a + StatusApi.peersUrl, options, String[].class))
+                .thenCompose(addresses -> addresses)
+                .thenApply(addresses -> {
+                    final Endpoint[] found = Arrays.stream(addresses.length == 0 ? new String[] { null } : addresses)
+                        .map(address -> address == null ? agent : Routing.httpBase(agent, address, httpPort))
+                        .distinct()
+                        .map(address -> endpoints.computeIfAbsent(address, Endpoint::new))
+                        .toArray(Endpoint[]::new);
+                    return new Servers(found);
+                }));
+        lookup.whenComplete((found, error) -> {
+            lookups.remove(agent, lookup);
+            if (found != null) {
+                servers.put(agent, found);
+            }
+        });
+        return known != null ? CompletableFuture.completedFuture(known) : lookup;
+    }
+
+    private static final class Servers {
+        final long fetchedAt = System.nanoTime();
+
+        final Endpoint[] endpoints;
+
+        Servers(final Endpoint[] endpoints) {
+            this.endpoints = endpoints;
+        }
+    }
+
+    private static final class Endpoint {
+        final String address;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        private double latencyNanos;
+
+        private long sampledAt = System.nanoTime();
+
+        private int failures;
+
+        private int ejections;
+
+        volatile long ejectedUntil = System.nanoTime();
+
+        Endpoint(final String address) {
+            this.address = address;
+        }
+
+        synchronized double latency(final long now) {
+            return latencyNanos * Math.exp(-(double) (now - sampledAt) / DECAY_NANOS);
+        }
+
+        double cost(final long now) {
+            return latency(now) * (inFlight.get() + 1);
+        }
+
+        boolean isEjected(final long now) {
+            return now - ejectedUntil < 0;
+        }
+
+        void succeeded(final long now, final long elapsedNanos, final Endpoint[] peers) {
+            final double latency;
+            synchronized (this) {
+                final double decayed = latency(now);
+                // peak sensitive: jump up to a slow sample, come down gradually
+                latencyNanos = elapsedNanos > decayed ? elapsedNanos : decayed + (elapsedNanos - decayed) * 0.3;
+                sampledAt = now;
+                failures = 0;
+                latency = latencyNanos;
+            }
+            final double median = medianOfOthers(now, peers);
+            if (median > 0 && latency > SLOW_FACTOR * median) {
+                eject(now, peers);
+            } else {
+                synchronized (this) {
+                    ejections = 0;
+                }
+            }
+        }
+
+        /** Answered without a meaningful response time, e.g. a long-poll. */
+        synchronized void answered() {
+            failures = 0;
+        }
+
+        void failed(final long now, final Endpoint[] peers) {
+            final boolean eject;
+            synchronized (this) {
+                eject = ++failures >= FAILURES_TO_EJECT;
+            }
+            if (eject) {
+                eject(now, peers);
+            }
+        }
+
+        private void eject(final long now, final Endpoint[] peers) {
+            int ejected = 0;
+            for (Endpoint peer : peers) {
+                if (peer.isEjected(now)) {
+                    ejected++;
+                }
+            }
+            if (ejected + 1 > peers.length / 2 || isEjected(now)) {
+                return;
+            }
+            synchronized (this) {
+                ejectedUntil = now + Math.min(EJECTION_NANOS << Math.min(ejections, 8), MAX_EJECTION_NANOS);
+                ejections++;
+                failures = 0;
+            }
+        }
+
+        /** Whether the server answered lately enough for its average to tell how fast the cluster is. */
+        synchronized boolean isSampled(final long now) {
+            return latencyNanos > 0 && now - sampledAt < SAMPLE_LIFETIME_NANOS;
+        }
+
+        /**
+         * Median average of the other servers sampled lately, 0 if there are fewer than two: servers never timed,
+         * or idle long enough for their averages to decay, would make any answer look slow.
+         */
+        private double medianOfOthers(final long now, final Endpoint[] peers) {
+            final double[] latencies = Arrays.stream(peers)
+                .filter(peer -> peer != this && peer.isSampled(now))
+                .mapToDouble(peer -> peer.latency(now))
+                .sorted()
+                .toArray();
+            return latencies.length < 2 ? 0 : latencies[latencies.length / 2];
+        }
+    }
+}
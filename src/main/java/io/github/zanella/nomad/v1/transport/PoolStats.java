@@ -0,0 +1,19 @@
+package io.github.zanella.nomad.v1.transport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class PoolStats {
+    /** Open connections, idle or in use. */
+    int connections;
+
+    int idleConnections;
+
+    /** Exchanges currently on the wire. */
+    int runningCalls;
+
+    /** Exchanges waiting for the per-host or total limit. */
+    int queuedCalls;
+}
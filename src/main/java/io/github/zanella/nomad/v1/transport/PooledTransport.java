@@ -0,0 +1,196 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+/**
+ * Keep-alive transport backed by an OkHttp connection pool.
+ * <p>
+ * Every exchange, blocking or not, goes through the dispatcher so the total and per-host limits on requests always
+ * apply. These bound the exchanges waiting for their response headers, not the sockets: an exchange leaves the
+ * dispatcher once its headers are in, while a streamed body, such as a followed log or a download, holds its
+ * connection until it is closed. Up to {@code maxRequests} idle connections are kept alive for reuse.
+ * Connect and read timeouts are taken from the {@link Request.Options} of each call.
+ */
+public class PooledTransport implements Transport {
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+
+    public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 60;
+
+    private final OkHttpClient okHttpClient;
+
+    private final ConcurrentMap<Long, OkHttpClient> clientsByTimeouts = new ConcurrentHashMap<>();
+
+    public PooledTransport() {
+        this(DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST, DEFAULT_IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public PooledTransport(final int maxRequests, final int maxRequestsPerHost,
+                           final long idleTimeout, final TimeUnit idleTimeoutUnit) {
+        this(newClientBuilder(maxRequests, maxRequestsPerHost, idleTimeout, idleTimeoutUnit).build());
+    }
+
+    protected PooledTransport(final OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    protected static OkHttpClient.Builder newClientBuilder(final int maxRequests, final int maxRequestsPerHost,
+                                                           final long idleTimeout, final TimeUnit idleTimeoutUnit) {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        return new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(maxRequests, idleTimeout, idleTimeoutUnit))
+            .followRedirects(true)
+            .retryOnConnectionFailure(true);
+    }
+
+    public PoolStats getStats() {
+        final ConnectionPool pool = okHttpClient.connectionPool();
+        final Dispatcher dispatcher = okHttpClient.dispatcher();
+        return new PoolStats(pool.connectionCount(), pool.idleConnectionCount(),
+            dispatcher.runningCallsCount(), dispatcher.queuedCallsCount());
+    }
+
+    /**
+     * Closes the idle connections and stops accepting new exchanges.
+     */
+    public void shutdown() {
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final CompletableFuture<Response> future = executeAsync(request, options);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted executing " + request.method() + " " + request.url());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        final Call call = clientFor(options).newCall(toOkHttpRequest(request));
+
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(final Call call, final IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(final Call call, final okhttp3.Response response) {
+                final Response feignResponse = toFeignResponse(response);
+                if (!future.complete(feignResponse)) {
+                    Util.ensureClosed(feignResponse.body());
+                }
+            }
+        });
+
+        return future;
+    }
+
+    private OkHttpClient clientFor(final Request.Options options) {
+        final long key = ((long) options.connectTimeoutMillis() << 32) | (options.readTimeoutMillis() & 0xffffffffL);
+
+        return clientsByTimeouts.computeIfAbsent(key, k -> okHttpClient.newBuilder()
+            .connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .build());
+    }
+
+    private static okhttp3.Request toOkHttpRequest(final Request request) {
+        final okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.url());
+
+        MediaType mediaType = null;
+        boolean hasAcceptHeader = false;
+        for (final Map.Entry<String, Collection<String>> field : request.headers().entrySet()) {
+            if (field.getKey().equalsIgnoreCase("Accept")) {
+                hasAcceptHeader = true;
+            }
+            for (final String value : field.getValue()) {
+                if (field.getKey().equalsIgnoreCase("Content-Type")) {
+                    mediaType = MediaType.parse(value);
+                }
+                builder.addHeader(field.getKey(), value);
+            }
+        }
+        if (!hasAcceptHeader) {
+            builder.addHeader("Accept", "*/*");
+        }
+
+        RequestBody body = null;
+        if (request.body() != null) {
+            body = RequestBody.create(mediaType, request.body());
+        } else if (requiresRequestBody(request.method())) {
+            body = RequestBody.create(null, new byte[0]);
+        }
+
+        return builder.method(request.method(), body).build();
+    }
+
+    private static boolean requiresRequestBody(final String method) {
+        return method.equals("POST") || method.equals("PUT") || method.equals("PATCH");
+    }
+
+    private static Response toFeignResponse(final okhttp3.Response response) {
+        final Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final Headers okHttpHeaders = response.headers();
+        for (final String name : okHttpHeaders.names()) {
+            headers.put(name, okHttpHeaders.values(name));
+        }
+
+        final ResponseBody body = response.body();
+        if (body == null) {
+            return Response.create(response.code(), response.message(), headers, (byte[]) null);
+        }
+
+        final long contentLength = body.contentLength();
+        final Integer length = contentLength >= 0 && contentLength <= Integer.MAX_VALUE ? (int) contentLength : null;
+        return Response.create(response.code(), response.message(), headers, body.byteStream(), length);
+    }
+}
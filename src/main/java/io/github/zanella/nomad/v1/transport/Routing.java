@@ -0,0 +1,122 @@
+package io.github.zanella.nomad.v1.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import feign.Request;
+import feign.Util;
+
+/**
+ * URL and discovery helpers shared by the transports that send requests to other servers than the targeted agent.
+ */
+final class Routing {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Endpoints answered by the targeted agent itself. */
+    private static final List<String> LOCAL_PREFIXES = Arrays.asList("/v1/client/", "/v1/agent/", "/v1/status/");
+
+    private Routing() { }
+
+    /**
+     * Whether any server can answer the request, as opposed to only the targeted agent.
+     */
+    static boolean isRoutable(final Request request) {
+        final String path = request.url().substring(pathStart(request.url()));
+        return path.startsWith("/v1/") && LOCAL_PREFIXES.stream().noneMatch(path::startsWith);
+    }
+
+    static boolean isRead(final Request request) {
+        return "GET".equals(request.method()) || "HEAD".equals(request.method());
+    }
+
+    /**
+     * Whether the request is a blocking query, held by the server until the {@code index} moves or it times out.
+     */
+    static boolean isBlockingQuery(final Request request) {
+        final int query = request.url().indexOf('?');
+        return query >= 0 && (request.url().startsWith("index=", query + 1) || request.url().contains("&index="));
+    }
+
+    /** Scheme and authority of the request, e.g. {@code http://localhost:4646}. */
+    static String agentOf(final Request request) {
+        return request.url().substring(0, pathStart(request.url()));
+    }
+
+    /** Path and query of the URL, e.g. {@code /v1/jobs?prefix=web}. */
+    static String pathOf(final String url) {
+        return url.substring(pathStart(url));
+    }
+
+    /**
+     * The request sent to {@code target} instead, optionally allowing any server to answer with {@code ?stale}.
+     */
+    static Request rebase(final Request request, final String target, final boolean stale) {
+        String url = target + request.url().substring(pathStart(request.url()));
+        if (stale) {
+            url += url.indexOf('?') < 0 ? "?stale" : "&stale";
+        }
+        return Request.create(request.method(), url, request.headers(), request.body(), request.charset());
+    }
+
+    /**
+     * Base URL of the HTTP API of a server known by its RPC address, with the scheme of {@code agent} and either
+     * {@code httpPort} or, when it is -1, the port of {@code agent}.
+     */
+    static String httpBase(final String agent, final String rpcAddress, final int httpPort) {
+        final String scheme = agent.substring(0, agent.indexOf("://") + 3);
+        final String authority = agent.substring(scheme.length());
+        final String port = httpPort > 0 ? ":" + httpPort : authority.substring(host(authority).length());
+        return scheme + host(rpcAddress) + port;
+    }
+
+    /**
+     * GETs {@code url} through {@code transport} and binds the JSON answer.
+     */
+    static <T> CompletableFuture<T> get(final Transport transport, final String url, final Request.Options options,
+                                        final Class<T> type) {
+        final Request request = Request.create("GET", url, Collections.emptyMap(), null, StandardCharsets.UTF_8);
+        return transport.executeAsync(request, options).thenApply(response -> {
+            try {
+                if (response.status() != 200 || response.body() == null) {
+                    throw new IllegalStateException("GET " + url + " answered " + response.status());
+                }
+                return MAPPER.readValue(Util.toByteArray(response.body().asInputStream()), type);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                Util.ensureClosed(response.body());
+            }
+        });
+    }
+
+    static boolean causedBy(Throwable error, final Class<? extends Throwable> type) {
+        for (; error != null; error = error.getCause()) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /** Strips the port, keeping IPv6 brackets. */
+    private static String host(final String address) {
+        final int colon = address.lastIndexOf(':');
+        return colon > address.lastIndexOf(']') ? address.substring(0, colon) : address;
+    }
+
+    private static int pathStart(final String url) {
+        final int path = url.indexOf('/', url.indexOf("://") + 3);
+        return path < 0 ? url.length() : path;
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Weight-bounded map evicting by W-TinyLFU: new entries land in a small LRU window, and an entry leaving the window
+ * only takes the place of the main area's next victim if it was used more often recently, as estimated by a
+ * count-min sketch that is halved periodically. The main area is a segmented LRU whose protected part holds the
+ * entries hit again since they were admitted. A one-off scan therefore goes through the window without flushing the
+ * entries that are read all the time.
+ */
+final class TinyLfuCache<K, V> {
+    private final long maxWeight;
+
+    private final long windowMax;
+
+    private final long protectedMax;
+
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<K, Node<V>> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final FrequencySketch sketch;
+
+    private long windowWeight;
+
+    private long probationWeight;
+
+    private long protectedWeight;
+
+    /**
+     * @param maxWeight        total weight of the entries kept
+     * @param expectedEntries  rough number of entries that fit, sizes the frequency sketch
+     */
+    TinyLfuCache(final long maxWeight, final int expectedEntries) {
+        this.maxWeight = maxWeight;
+        this.windowMax = Math.max(1, maxWeight / 100);
+        this.protectedMax = (maxWeight - windowMax) * 8 / 10;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    synchronized V get(final K key) {
+        sketch.increment(key);
+        Node<V> node = window.get(key);
+        if (node != null) {
+            return node.value;
+        }
+        node = protectedArea.get(key);
+        if (node != null) {
+            return node.value;
+        }
+        node = probation.remove(key);
+        if (node == null) {
+            return null;
+        }
+        // hit again since admission
+        probationWeight -= node.weight;
+        protectedArea.put(key, node);
+        protectedWeight += node.weight;
+        while (protectedWeight > protectedMax && protectedArea.size() > 1) {
+            final Map.Entry<K, Node<V>> demoted = first(protectedArea);
+            protectedArea.remove(demoted.getKey());
+            protectedWeight -= demoted.getValue().weight;
+            probation.put(demoted.getKey(), demoted.getValue());
+            probationWeight += demoted.getValue().weight;
+        }
+        return node.value;
+    }
+
+    /**
+     * Stores {@code value}, unless it alone outweighs the main area, which it could never be admitted to.
+     */
+    synchronized void put(final K key, final V value, final long weight) {
+        remove(key);
+        if (weight > maxWeight - windowMax) {
+            return;
+        }
+        window.put(key, new Node<>(value, weight));
+        windowWeight += weight;
+        while (windowWeight > windowMax && !window.isEmpty()) {
+            final Map.Entry<K, Node<V>> candidate = first(window);
+            window.remove(candidate.getKey());
+            windowWeight -= candidate.getValue().weight;
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    synchronized V remove(final K key) {
+        Node<V> node = window.remove(key);
+        if (node != null) {
+            windowWeight -= node.weight;
+            return node.value;
+        }
+        node = probation.remove(key);
+        if (node != null) {
+            probationWeight -= node.weight;
+            return node.value;
+        }
+        node = protectedArea.remove(key);
+        if (node != null) {
+            protectedWeight -= node.weight;
+            return node.value;
+        }
+        return null;
+    }
+
+    synchronized void removeIf(final Predicate<K> matching) {
+        windowWeight -= removeIf(window, matching);
+        probationWeight -= removeIf(probation, matching);
+        protectedWeight -= removeIf(protectedArea, matching);
+    }
+
+    synchronized long weightedSize() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    synchronized int size() {
+        return window.size() + probation.size() + protectedArea.size();
+    }
+
+    synchronized boolean containsKey(final K key) {
+        return window.containsKey(key) || probation.containsKey(key) || protectedArea.containsKey(key);
+    }
+
+    /**
+     * Moves an entry leaving the window to the main area if there is room or if it is more popular than the
+     * entries it would push out.
+     */
+    private void admit(final K key, final Node<V> candidate) {
+        final long mainMax = maxWeight - windowMax;
+        if (probationWeight + protectedWeight + candidate.weight > mainMax) {
+            final LinkedHashMap<K, Node<V>> victims = probation.isEmpty() ? protectedArea : probation;
+            if (victims.isEmpty() || sketch.frequency(key) <= sketch.frequency(first(victims).getKey())) {
+                return;
+            }
+            while (probationWeight + protectedWeight + candidate.weight > mainMax) {
+                if (!probation.isEmpty()) {
+                    probationWeight -= probation.remove(first(probation).getKey()).weight;
+                } else {
+                    protectedWeight -= protectedArea.remove(first(protectedArea).getKey()).weight;
+                }
+            }
+        }
+        probation.put(key, candidate);
+        probationWeight += candidate.weight;
+    }
+
+    private static <K, V> Map.Entry<K, Node<V>> first(final LinkedHashMap<K, Node<V>> area) {
+        return area.entrySet().iterator().next();
+    }
+
+    private static <K, V> long removeIf(final LinkedHashMap<K, Node<V>> area, final Predicate<K> matching) {
+        long removed = 0;
+        for (Iterator<Map.Entry<K, Node<V>>> it = area.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<K, Node<V>> entry = it.next();
+            if (matching.test(entry.getKey())) {
+                removed += entry.getValue().weight;
+                it.remove();
+            }
+        }
+        return removed;
+    }
+
+    private static final class Node<V> {
+        final V value;
+
+        final long weight;
+
+        Node(final V value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4 rows of counters saturating at 15, all halved every 10 increments per expected entry so
+     * that old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = { 0x97cb3127, 0xb4b82e39, 0x5a7c1d3f, 0xe6b3c9a5 };
+
+        private final byte[][] rows = new byte[SEEDS.length][];
+
+        private final int mask;
+
+        private final int sampleSize;
+
+        private int additions;
+
+        FrequencySketch(final int expectedEntries) {
+            final int entries = Math.max(64, Math.min(1 << 20, expectedEntries));
+            // four counters per entry and row keep collisions rare
+            final int width = Integer.highestOneBit(entries * 4 * 2 - 1);
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new byte[width];
+            }
+            this.mask = width - 1;
+            this.sampleSize = 10 * entries;
+        }
+
+        void increment(final Object key) {
+            final int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < rows.length; i++) {
+                final int index = index(hash, i);
+                if (rows[i][index] < 15) {
+                    rows[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (byte[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(final Object key) {
+            final int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < rows.length; i++) {
+                frequency = Math.min(frequency, rows[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(final int hash, final int row) {
+            final int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(final int hash) {
+            final int h = hash * 0x45d9f3b;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * A {@link Client} that can also run an exchange without blocking the caller.
+ * <p>
+ * Cancelling the returned future must abort the underlying HTTP exchange.
+ */
+public interface Transport extends Client {
+    CompletableFuture<Response> executeAsync(Request request, Request.Options options);
+}
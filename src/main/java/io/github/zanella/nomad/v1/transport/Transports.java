@@ -0,0 +1,57 @@
+package io.github.zanella.nomad.v1.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Transports {
+    private Transports() { }
+
+    /**
+     * Shared cached pool of daemon threads, used when no executor is configured.
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Shared daemon thread for timers, e.g. the hedge delays of {@link HedgingTransport}. Tasks must be short.
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * Cancels {@code source} when {@code dependent} is cancelled, so exchanges derived with {@code thenApply} and
+     * friends can still be aborted. Returns {@code dependent}.
+     */
+    public static <T> CompletableFuture<T> cancelling(final CompletableFuture<T> dependent,
+                                                      final CompletableFuture<?> source) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "nomad-async-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class SchedulerHolder {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "nomad-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
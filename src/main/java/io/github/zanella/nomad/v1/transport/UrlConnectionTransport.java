@@ -0,0 +1,177 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static feign.Util.CONTENT_ENCODING;
+import static feign.Util.CONTENT_LENGTH;
+import static feign.Util.ENCODING_DEFLATE;
+import static feign.Util.ENCODING_GZIP;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * {@link HttpURLConnection} based transport, equivalent to Feign's default client.
+ * <p>
+ * Asynchronous exchanges run on the given executor, each blocking a thread until it is answered; cancelling one
+ * disconnects its connection.
+ */
+public class UrlConnectionTransport implements Transport {
+    private final Executor executor;
+
+    public UrlConnectionTransport(final Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final HttpURLConnection connection = open(request, options);
+        send(connection, request);
+        return receive(connection);
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        final AtomicReference<HttpURLConnection> inFlight = new AtomicReference<>();
+
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                final HttpURLConnection connection = inFlight.get();
+                if (connection != null) {
+                    connection.disconnect();
+                }
+            }
+        });
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    final HttpURLConnection connection = open(request, options);
+                    inFlight.set(connection);
+                    if (future.isCancelled()) {
+                        connection.disconnect();
+                        return;
+                    }
+
+                    send(connection, request);
+                    final Response response = receive(connection);
+                    if (!future.complete(response)) {
+                        Util.ensureClosed(response.body());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    protected HttpURLConnection open(final Request request, final Request.Options options) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(request.url()).openConnection();
+        connection.setConnectTimeout(options.connectTimeoutMillis());
+        connection.setReadTimeout(options.readTimeoutMillis());
+        connection.setAllowUserInteraction(false);
+        connection.setInstanceFollowRedirects(true);
+        connection.setRequestMethod(request.method());
+        return connection;
+    }
+
+    private static void send(final HttpURLConnection connection, final Request request) throws IOException {
+        final Collection<String> contentEncodingValues = request.headers().get(CONTENT_ENCODING);
+        final boolean gzipEncodedRequest = contentEncodingValues != null && contentEncodingValues.contains(ENCODING_GZIP);
+        final boolean deflateEncodedRequest = contentEncodingValues != null && contentEncodingValues.contains(ENCODING_DEFLATE);
+
+        boolean hasAcceptHeader = false;
+        Integer contentLength = null;
+        for (final String field : request.headers().keySet()) {
+            if (field.equalsIgnoreCase("Accept")) {
+                hasAcceptHeader = true;
+            }
+            for (final String value : request.headers().get(field)) {
+                if (field.equals(CONTENT_LENGTH)) {
+                    if (!gzipEncodedRequest && !deflateEncodedRequest) {
+                        contentLength = Integer.valueOf(value);
+                        connection.addRequestProperty(field, value);
+                    }
+                } else {
+                    connection.addRequestProperty(field, value);
+                }
+            }
+        }
+        if (!hasAcceptHeader) {
+            connection.addRequestProperty("Accept", "*/*");
+        }
+
+        if (request.body() != null) {
+            if (contentLength != null) {
+                connection.setFixedLengthStreamingMode(contentLength);
+            } else {
+                connection.setChunkedStreamingMode(8196);
+            }
+            connection.setDoOutput(true);
+            OutputStream out = connection.getOutputStream();
+            if (gzipEncodedRequest) {
+                out = new GZIPOutputStream(out);
+            } else if (deflateEncodedRequest) {
+                out = new DeflaterOutputStream(out);
+            }
+            try {
+                out.write(request.body());
+            } finally {
+                try {
+                    out.close();
+                } catch (IOException suppressed) {
+                    // best effort, the request has been written already
+                }
+            }
+        }
+    }
+
+    private static Response receive(final HttpURLConnection connection) throws IOException {
+        final int status = connection.getResponseCode();
+        final String reason = connection.getResponseMessage();
+
+        if (status < 0) {
+            throw new IOException(String.format("Invalid status(%s) executing %s %s", status,
+                connection.getRequestMethod(), connection.getURL()));
+        }
+
+        final Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+            // response message
+            if (field.getKey() != null) {
+                headers.put(field.getKey(), field.getValue());
+            }
+        }
+
+        Integer length = connection.getContentLength();
+        if (length == -1) {
+            length = null;
+        }
+
+        final InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        return Response.create(status, reason, headers, stream, length);
+    }
+}
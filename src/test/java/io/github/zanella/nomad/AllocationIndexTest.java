@@ -0,0 +1,76 @@
+package io.github.zanella.nomad;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.zanella.nomad.v1.common.models.AllocationSummary;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class AllocationIndexTest {
+
+    private static AllocationSummary allocation(String id, String nodeId, String jobId, String taskGroup,
+                                                String clientStatus, int modifyIndex) {
+        final AllocationSummary allocation = new AllocationSummary();
+        allocation.setId(id);
+        allocation.setNodeId(nodeId);
+        allocation.setJobId(jobId);
+        allocation.setTaskGroup(taskGroup);
+        allocation.setClientStatus(clientStatus);
+        allocation.setDesiredStatus("run");
+        allocation.setModifyIndex(modifyIndex);
+        return allocation;
+    }
+
+    private static List<String> ids(List<AllocationSummary> allocations) {
+        return allocations.stream().map(AllocationSummary::getId).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void lookupsTest() {
+        final AllocationIndex<AllocationSummary> index = new AllocationIndex<>();
+        index.update(ImmutableList.of(
+            allocation("a1", "n1", "web", "frontend", "running", 10),
+            allocation("a2", "n1", "web", "backend", "pending", 11),
+            allocation("a3", "n2", "web", "frontend", "running", 12),
+            allocation("a4", "n1", "batch", "worker", "running", 13)));
+
+        assertEquals(ImmutableList.of("a1", "a2", "a4"), ids(index.byNode("n1")));
+        assertEquals(ImmutableList.of("a1", "a2", "a3"), ids(index.byJob("web")));
+        assertEquals(ImmutableList.of("a1", "a3"), ids(index.byTaskGroup("web", "frontend")));
+        assertEquals(ImmutableList.of("a2"), ids(index.byClientStatus("pending")));
+        assertEquals(4, index.byDesiredStatus("run").size());
+        assertEquals(ImmutableList.of("a1"), ids(index.select("web", null, "n1", "running", null)));
+        assertTrue(index.byNode("n3").isEmpty());
+    }
+
+    @Test
+    public void incrementalUpdateTest() {
+        final AllocationIndex<AllocationSummary> index = new AllocationIndex<>();
+        index.update(ImmutableList.of(
+            allocation("a1", "n1", "web", "frontend", "pending", 10),
+            allocation("a2", "n1", "web", "frontend", "running", 11)));
+
+        // a1 changed, a2 is gone and a3 is new
+        assertEquals(3, index.update(ImmutableList.of(
+            allocation("a1", "n1", "web", "frontend", "running", 14),
+            allocation("a3", "n2", "web", "frontend", "running", 15))));
+
+        assertEquals(2, index.size());
+        assertTrue(index.byClientStatus("pending").isEmpty());
+        assertEquals(ImmutableList.of("a1"), ids(index.byNode("n1")));
+        assertEquals(ImmutableList.of("a1", "a3"), ids(index.select("web", "frontend", null, "running", null)));
+
+        // an unchanged ModifyIndex is not re-indexed, but the new instance is kept
+        final AllocationSummary a1 = allocation("a1", "n1", "web", "frontend", "running", 14);
+        assertEquals(0, index.update(ImmutableList.of(a1, allocation("a3", "n2", "web", "frontend", "running", 15))));
+        assertSame(a1, index.get("a1"));
+        assertSame(a1, index.byNode("n1").get(0));
+    }
+}
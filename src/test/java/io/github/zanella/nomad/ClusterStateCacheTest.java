@@ -0,0 +1,121 @@
+package io.github.zanella.nomad;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.resetAllRequests;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.allocations.AllocationsApi;
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.evaluations.EvaluationsApi;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.nodes.NodesApi;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ClusterStateCacheTest extends AbstractCommon {
+
+    private final AsyncV1Client asyncClient = new AsyncV1Client("http://localhost", NomadClient.DEFAULT_PORT);
+
+    private static String blockingUrl(final String blockingUrl, final long index) {
+        return UriTemplate.fromTemplate(blockingUrl)
+            .expand(ImmutableMap.<String, Object>of("index", index, "wait", ClusterStateCache.DEFAULT_WAIT));
+    }
+
+    private static void stubList(final String blockingUrl, final long requestedIndex, final long index,
+                                 final String body, final int delayMillis) {
+        stubFor(get(urlEqualTo(blockingUrl(blockingUrl, requestedIndex)))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("X-Nomad-Index", String.valueOf(index))
+                .withFixedDelay(delayMillis)
+                .withBody(body)));
+    }
+
+    @Test
+    public void replicatesListsTest() throws InterruptedException {
+        stubList(JobsApi.jobsBlockingUrl, 1, 7, "[{\"ID\": \"job\", \"ModifyIndex\": 7}]", 0);
+        stubList(JobsApi.jobsBlockingUrl, 7, 9, "[{\"ID\": \"job\", \"ModifyIndex\": 9}, {\"ID\": \"other\"}]", 100);
+        stubList(JobsApi.jobsBlockingUrl, 9, 9, "[{\"ID\": \"job\", \"ModifyIndex\": 9}, {\"ID\": \"other\"}]", 1000);
+        stubList(NodesApi.nodesBlockingUrl, 1, 3, "[{\"ID\": \"node\"}]", 0);
+        stubList(NodesApi.nodesBlockingUrl, 3, 3, "[{\"ID\": \"node\"}]", 1000);
+        stubList(AllocationsApi.allocationsBlockingUrl, 1, 4, "[]", 0);
+        stubList(AllocationsApi.allocationsBlockingUrl, 4, 4, "[]", 1000);
+        stubList(EvaluationsApi.evaluationsBlockingUrl, 1, 5, "[{\"ID\": \"eval\"}]", 0);
+        stubList(EvaluationsApi.evaluationsBlockingUrl, 5, 5, "[{\"ID\": \"eval\"}]", 1000);
+
+        try (ClusterStateCache cache = new ClusterStateCache(asyncClient)) {
+            final CountDownLatch jobsChanged = new CountDownLatch(1);
+            cache.jobs.addListener(jobs -> {
+                if (jobs.size() == 2) {
+                    jobsChanged.countDown();
+                }
+            });
+
+            assertTrue(cache.awaitLoaded(5, TimeUnit.SECONDS));
+            assertEquals("node", cache.nodes.get().get(0).getId());
+            assertEquals(3, cache.nodes.getIndex());
+            assertEquals(0, cache.allocations.get().size());
+            assertEquals("eval", cache.evaluations.get().get(0).getId());
+
+            assertTrue(cache.jobs.getIndex() == 9 || jobsChanged.await(5, TimeUnit.SECONDS));
+            assertEquals(9, cache.jobs.getIndex());
+            assertEquals(2, cache.jobs.get().size());
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void resumesFromSnapshotTest() throws IOException, InterruptedException {
+        stubList(JobsApi.jobsBlockingUrl, 1, 7, "[{\"ID\": \"job\", \"ModifyIndex\": 7}]", 0);
+        stubList(JobsApi.jobsBlockingUrl, 7, 7, "[{\"ID\": \"job\", \"ModifyIndex\": 7}]", 1000);
+        stubList(NodesApi.nodesBlockingUrl, 1, 3, "[{\"ID\": \"node\"}]", 0);
+        stubList(NodesApi.nodesBlockingUrl, 3, 3, "[{\"ID\": \"node\"}]", 1000);
+        stubList(AllocationsApi.allocationsBlockingUrl, 1, 4,
+            "[{\"ID\": \"alloc\", \"NodeID\": \"node\", \"JobID\": \"job\", \"TaskStates\": {\"web\": {\"State\": \"running\"}}}]", 0);
+        stubList(AllocationsApi.allocationsBlockingUrl, 4, 4, "[]", 1000);
+        stubList(EvaluationsApi.evaluationsBlockingUrl, 1, 5, "[{\"ID\": \"eval\"}]", 0);
+        stubList(EvaluationsApi.evaluationsBlockingUrl, 5, 5, "[{\"ID\": \"eval\"}]", 1000);
+
+        final Path snapshot = temporaryFolder.getRoot().toPath().resolve("cluster.snapshot");
+        final List<Allocation> allocations;
+        try (ClusterStateCache cache = new ClusterStateCache(asyncClient)) {
+            assertTrue(cache.awaitLoaded(5, TimeUnit.SECONDS));
+            allocations = cache.allocations.get();
+            cache.saveSnapshot(snapshot);
+        }
+
+        resetAllRequests();
+        try (ClusterStateCache cache = new ClusterStateCache(asyncClient, ClusterStateCache.DEFAULT_WAIT, snapshot)) {
+            assertTrue(cache.awaitLoaded(0, TimeUnit.SECONDS));
+            assertEquals(7, cache.jobs.getIndex());
+            assertEquals("job", cache.jobs.get().get(0).getId());
+            assertEquals(allocations, cache.allocations.get());
+            assertEquals(1, cache.allocationIndex.byNode("node").size());
+            // the index shares the replica's instances
+            assertSame(cache.allocations.get().get(0), cache.allocationIndex.get("alloc"));
+        }
+        verify(0, getRequestedFor(urlEqualTo(blockingUrl(JobsApi.jobsBlockingUrl, 1))));
+    }
+}
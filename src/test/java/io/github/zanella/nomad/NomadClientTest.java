@@ -0,0 +1,121 @@
+package io.github.zanella.nomad;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.nodes.NodeApi;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class NomadClientTest extends AbstractCommon {
+
+    private static final String nodeId = "c9972143-861d-46e6-df73-1d8287bc3e66";
+
+    private static final String nodeUrl = urlOf(nodeId);
+
+    private static void stubNode(final String httpAddr, final int modifyIndex) {
+        stubNode(nodeId, httpAddr, modifyIndex);
+    }
+
+    private static void stubNode(final String id, final String httpAddr, final int modifyIndex) {
+        stubFor(get(urlEqualTo(urlOf(id)))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("{\"ID\": \"" + id + "\", \"HTTPAddr\": \"" + httpAddr + "\", \"TLSEnabled\": false," +
+                    "\"CreateIndex\": 3, \"ModifyIndex\": " + modifyIndex + "}")));
+    }
+
+    private static String urlOf(final String id) {
+        return UriTemplate.fromTemplate(NodeApi.nodeUrl).expand(ImmutableMap.of("nodeId", id));
+    }
+
+    private static NodeSummary summary(final int modifyIndex) {
+        final NodeSummary nodeSummary = new NodeSummary();
+        nodeSummary.setId(nodeId);
+        nodeSummary.setModifyIndex(modifyIndex);
+        return nodeSummary;
+    }
+
+    @Test
+    public void nodeClientIsCachedTest() {
+        stubNode("127.0.0.1:4646", 4);
+
+        final NomadClient nodeClient = nomadClient.node(nodeId);
+
+        assertEquals("http://127.0.0.1:4646", nodeClient.v1.getAgentAddress());
+        assertSame(nodeClient, nomadClient.node(nodeId));
+        assertSame(nodeClient, nomadClient.node(summary(4)));
+        assertSame(nomadClient.v1.getTransport(), nodeClient.v1.getTransport());
+
+        verify(1, getRequestedFor(urlEqualTo(nodeUrl)));
+    }
+
+    @Test
+    public void modifyIndexChangeRevalidatesTest() {
+        stubNode("127.0.0.1:4646", 4);
+        final NomadClient nodeClient = nomadClient.node(nodeId);
+
+        // same address, the client is kept
+        stubNode("127.0.0.1:4646", 5);
+        assertSame(nodeClient, nomadClient.node(summary(5)));
+
+        // moved, the client is replaced
+        stubNode("localhost:4646", 6);
+        final NomadClient movedClient = nomadClient.node(summary(6));
+        assertNotSame(nodeClient, movedClient);
+        assertEquals("http://localhost:4646", movedClient.v1.getAgentAddress());
+
+        verify(3, getRequestedFor(urlEqualTo(nodeUrl)));
+    }
+
+    @Test
+    public void cacheIsBoundedTest() {
+        final NodeClientCache cache = new NodeClientCache(2, 1, TimeUnit.MINUTES);
+        final NomadClient client = new NomadClient(nomadClient.v1, cache);
+        for (String id : Arrays.asList("first", "second", "third")) {
+            stubNode(id, "127.0.0.1:4646", 4);
+        }
+
+        final NomadClient first = client.node("first");
+        client.node("second");
+        assertSame(first, client.node("first"));
+        client.node("third");
+        assertEquals(2, cache.size());
+
+        // the least recently used node was evicted and is looked up again, the others are still cached
+        assertSame(first, client.node("first"));
+        client.node("third");
+        verify(1, getRequestedFor(urlEqualTo(urlOf("first"))));
+        verify(1, getRequestedFor(urlEqualTo(urlOf("third"))));
+        client.node("second");
+        verify(2, getRequestedFor(urlEqualTo(urlOf("second"))));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void invalidateTest() {
+        final NodeClientCache cache = new NodeClientCache(1, 1, TimeUnit.MINUTES);
+        final NomadClient client = new NomadClient(nomadClient.v1, cache);
+        stubNode("127.0.0.1:4646", 4);
+
+        client.node(nodeId);
+        assertEquals(1, cache.size());
+
+        cache.invalidate(nodeId);
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.zanella.nomad;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import feign.FeignException;
+
+public class RegionFanOutTest extends AbstractCommon {
+
+    private final AsyncV1Client asyncClient = new AsyncV1Client("http://localhost", NomadClient.DEFAULT_PORT);
+
+    private static void stubJobs(final String region, final int status, final String body, final int delayMillis) {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(JobsApi.jobsForRegionUrl).expand(ImmutableMap.of("region", region))))
+            .willReturn(aResponse()
+                .withStatus(status)
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(delayMillis)
+                .withBody(body)));
+    }
+
+    @Test
+    public void toleratesSlowAndFailingRegionsTest() throws Exception {
+        stubFor(get(urlEqualTo(RegionsApi.regionsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("[\"east\", \"west\", \"south\"]")));
+        stubJobs("east", 200, "[{\"ID\": \"api\"}, {\"ID\": \"web\"}]", 0);
+        stubJobs("west", 200, "[{\"ID\": \"late\"}]", 2000);
+        stubJobs("south", 500, "boom", 0);
+
+        final long start = System.nanoTime();
+        final RegionalResult<JobSummary> result = new RegionFanOut(asyncClient, 300, TimeUnit.MILLISECONDS).jobs()
+            .get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+
+        assertFalse(result.isComplete());
+        assertEquals(ImmutableList.of("east"), ImmutableList.copyOf(result.getValues().keySet()));
+        assertTrue(result.getFailures().get("west") instanceof TimeoutException);
+        assertTrue(result.getFailures().get("south") instanceof FeignException);
+
+        assertEquals(2, result.merged().size());
+        assertEquals("east", result.merged().get(1).getRegion());
+        assertEquals("web", result.merged().get(1).getValue().getId());
+    }
+
+    @Test
+    public void selectedRegionsTest() throws Exception {
+        stubJobs("east", 200, "[{\"ID\": \"api\"}]", 0);
+        stubJobs("west", 200, "[{\"ID\": \"web\"}]", 0);
+
+        final RegionalResult<JobSummary> result = new RegionFanOut(asyncClient)
+            .jobs(ImmutableList.of("west", "east")).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isComplete());
+        assertEquals(ImmutableList.of("west", "east"), ImmutableList.copyOf(result.getValues().keySet()));
+        assertEquals("web", result.merged().get(0).getValue().getId());
+    }
+
+    @Test
+    public void nullAnswerTest() throws Exception {
+        stubJobs("east", 200, "null", 0);
+        stubJobs("west", 200, "[{\"ID\": \"web\"}]", 0);
+
+        final RegionalResult<JobSummary> result = new RegionFanOut(asyncClient)
+            .jobs(ImmutableList.of("east", "west")).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isComplete());
+        assertTrue(result.getValues().get("east").isEmpty());
+        assertEquals(1, result.merged().size());
+
+        result.getValues().put("east", null);
+        assertEquals("web", result.merged().get(0).getValue().getId());
+    }
+}
@@ -6,11 +6,14 @@ import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import com.damnhandy.uri.template.UriTemplate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import io.github.zanella.nomad.NomadClient;
 import io.github.zanella.nomad.v1.allocations.AllocationsApi;
 import io.github.zanella.nomad.v1.allocations.models.Allocation;
 import io.github.zanella.nomad.v1.common.models.TaskState;
@@ -18,6 +21,8 @@ import io.github.zanella.nomad.v1.common.models.TaskState;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class AllocationsApiTest extends AbstractCommon {
     private static final String rawAllocations = "[{" +
@@ -126,4 +131,60 @@ public class AllocationsApiTest extends AbstractCommon {
         expectedAllocation.setModifyIndex(9);
         assertEquals(expectedAllocationList, actualAllocationsList);
     }
+
+    @Test
+    public void streamAllocationsTest() {
+        final StringBuilder manyAllocations = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            manyAllocations.append(i == 0 ? "" : ",").append(rawAllocations, 1, rawAllocations.length() - 1);
+        }
+        manyAllocations.append("]");
+
+        stubFor(get(urlEqualTo(AllocationsApi.allocationsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(manyAllocations.toString()))
+        );
+
+        final List<Allocation> allocations = nomadClient.v1.allocations.getAllocations();
+
+        try (Stream<Allocation> stream = nomadClient.v1.allocations.streamAllocations()) {
+            assertEquals(allocations, stream.collect(Collectors.toList()));
+        }
+
+        // closing half way releases the connection
+        try (Stream<Allocation> stream = nomadClient.v1.allocations.streamAllocations()) {
+            assertEquals(3, stream.limit(3).count());
+        }
+        assertEquals(100, nomadClient.v1.allocations.getAllocations().size());
+    }
+
+    @Test
+    public void streamEmptyAllocationsTest() {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(AllocationsApi.allocationsForRegionUrl).expand(ImmutableMap.of("region", "region"))))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]"))
+        );
+
+        try (Stream<Allocation> stream = nomadClient.v1.allocations.streamAllocationsForRegion("region")) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    public void deduplicatedStringsTest() {
+        stubFor(get(urlEqualTo(AllocationsApi.allocationsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("[" + rawAllocations.substring(1, rawAllocations.length() - 1) + ","
+                    + rawAllocations.substring(1))));
+
+        final List<Allocation> plain = nomadClient.v1.allocations.getAllocations();
+        assertNotSame(plain.get(0).getNodeId(), plain.get(1).getNodeId());
+
+        final V1Client deduplicating = NomadClient.builder("localhost").deduplicateStrings(true).build();
+        final List<Allocation> first = deduplicating.allocations.getAllocations();
+        final List<Allocation> second = deduplicating.allocations.getAllocations();
+
+        assertEquals(plain, first);
+        assertSame(first.get(0).getNodeId(), first.get(1).getNodeId());
+        assertSame(first.get(0).getClientStatus(), second.get(1).getClientStatus());
+        assertSame(first.get(0).getTaskStates().get("redis").getState(), first.get(0).getClientStatus());
+    }
 }
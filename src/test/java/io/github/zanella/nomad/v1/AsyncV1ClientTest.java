@@ -0,0 +1,119 @@
+package io.github.zanella.nomad.v1;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.client.ClientApi;
+import io.github.zanella.nomad.v1.jobs.JobApi;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import feign.FeignException;
+import feign.Response;
+import feign.Util;
+
+public class AsyncV1ClientTest extends AbstractCommon {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final AsyncV1Client asyncClient = new AsyncV1Client("http://localhost", NomadClient.DEFAULT_PORT, executor);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getJobsTest() throws Exception {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[{" +
+                "    \"ID\": \"binstore-storagelocker\"," +
+                "    \"Name\": \"binstore-storagelocker\"," +
+                "    \"Type\": \"service\"," +
+                "    \"Priority\": 50," +
+                "    \"Status\": \"\"," +
+                "    \"StatusDescription\": \"\"," +
+                "    \"CreateIndex\": 14," +
+                "    \"ModifyIndex\": 14" +
+                "}]")));
+
+        final List<JobSummary> expectedJobList = ImmutableList.of(
+            new JobSummary("binstore-storagelocker", "binstore-storagelocker", "service", 50, "", "", 14, 14));
+
+        assertEquals(expectedJobList, asyncClient.jobs.call(JobsApi::getJobs).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void errorStatusTest() throws Exception {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(JobApi.jobUrl).expand(ImmutableMap.of("jobId", "missing"))))
+            .willReturn(aResponse().withStatus(404).withBody("job not found")));
+
+        try {
+            asyncClient.job.call(api -> api.getJob("missing")).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof FeignException);
+            assertEquals(404, ((FeignException) e.getCause()).status());
+            return;
+        }
+        throw new AssertionError("expected a 404");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endpointFunctionMustCallTheApiTest() {
+        asyncClient.regions.call(api -> ImmutableList.of());
+    }
+
+    @Test
+    public void cancelAbortsExchangeTest() throws Exception {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]").withFixedDelay(10000)));
+        stubFor(get(urlEqualTo(RegionsApi.regionsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[\"global\"]")));
+
+        final CompletableFuture<List<JobSummary>> slow = asyncClient.jobs.call(JobsApi::getJobs);
+        Thread.sleep(200);
+        assertTrue(slow.cancel(true));
+
+        // the only executor thread is free again once the connection has been dropped
+        assertEquals(ImmutableList.of("global"), asyncClient.regions.call(RegionsApi::getRegions).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void largeFileIsNotBufferedTest() throws Exception {
+        final byte[] content = new byte[1 << 20];
+        Arrays.fill(content, (byte) 'x');
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(ClientApi.allocationFileCatUrl)
+            .expand(ImmutableMap.<String, Object>of("allocationId", "allocationId", "path", "/alloc/data"))))
+            .willReturn(aResponse().withBody(content)));
+
+        try (Response response = asyncClient.client.call(api -> api.catAllocationFile("allocationId", "/alloc/data"))
+            .get(5, TimeUnit.SECONDS)) {
+            // still streaming from the connection
+            assertFalse(response.body().isRepeatable());
+            assertArrayEquals(content, Util.toByteArray(response.body().asInputStream()));
+        }
+    }
+}
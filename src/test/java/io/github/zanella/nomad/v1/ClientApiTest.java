@@ -5,23 +5,47 @@ import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import com.damnhandy.uri.template.UriTemplate;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import io.github.zanella.nomad.v1.client.AllocationFileDownloader;
 import io.github.zanella.nomad.v1.client.ClientApi;
+import io.github.zanella.nomad.v1.client.LogStreamPublisher;
 import io.github.zanella.nomad.v1.client.models.AllocationFile;
 import io.github.zanella.nomad.v1.client.models.AllocationStats;
 import io.github.zanella.nomad.v1.client.models.LogStream;
 import io.github.zanella.nomad.v1.client.models.Stats;
 
 import org.hamcrest.core.IsEqual;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import feign.FeignException;
 
 public class ClientApiTest extends AbstractCommon {
 
@@ -416,4 +440,250 @@ public class ClientApiTest extends AbstractCommon {
 
         assertThat(rawSelf, IsEqual.equalTo(nomadClient.v1.client.getAllocationLogStreamsList("allocationId", "task", true, LogStream.Type.stderr, 0, LogStream.Origin.start, false)));
     }
+
+    private static final String logStreamUrl = UriTemplate.fromTemplate(ClientApi.allocationLogStreamUrl)
+        .expand(ImmutableMap.<String, Object>builder()
+            .put("allocationId", "allocationId")
+            .put("task", "task")
+            .put("follow", true)
+            .put("type", LogStream.Type.stderr)
+            .put("offset", 0)
+            .put("origin", LogStream.Origin.end)
+            .put("plain", false)
+            .build());
+
+    private static final String logFrames = "{\"Offset\":65536,\"Data\":\"dGVzdA0K\",\"File\":\"alloc/logs/nginx.stderr.0\"}" +
+        "{}" +
+        "{\"Offset\":81893,\"Data\":\"dGVzdA0K\",\"File\":\"alloc/logs/nginx.stderr.0\"}";
+
+    @Test
+    public void streamAllocationLogsTest() {
+        stubFor(get(urlEqualTo(logStreamUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody(logFrames)));
+
+        try (Stream<LogStream> frames = nomadClient.v1.client.streamAllocationLogs("allocationId", "task", true,
+            LogStream.Type.stderr, 0, LogStream.Origin.end, false)) {
+            assertEquals(Arrays.asList(65536D, null, 81893D),
+                frames.map(LogStream::getOffset).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void logStreamPublisherTest() throws InterruptedException {
+        stubFor(get(urlEqualTo(logStreamUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody(logFrames)));
+
+        final List<LogStream> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        LogStreamPublisher.follow(nomadClient.v1.client, "allocationId", "task", LogStream.Type.stderr)
+            .subscribe(new LogStreamPublisher.Subscriber() {
+                private LogStreamPublisher.Subscription subscription;
+
+                @Override
+                public void onSubscribe(LogStreamPublisher.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(LogStream frame) {
+                    received.add(frame);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable error) { }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(65536D, 81893D),
+            received.stream().map(LogStream::getOffset).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void logStreamPublisherCancelTest() throws InterruptedException {
+        stubFor(get(urlEqualTo(logStreamUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody(logFrames)));
+
+        final List<LogStream> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch signalled = new CountDownLatch(1);
+
+        LogStreamPublisher.follow(nomadClient.v1.client, "allocationId", "task", LogStream.Type.stderr)
+            .subscribe(new LogStreamPublisher.Subscriber() {
+                private LogStreamPublisher.Subscription subscription;
+
+                @Override
+                public void onSubscribe(LogStreamPublisher.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(LogStream frame) {
+                    received.add(frame);
+                    subscription.cancel();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    signalled.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    signalled.countDown();
+                }
+            });
+
+        assertFalse(signalled.await(500, TimeUnit.MILLISECONDS));
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void logStreamPublisherRejectedTest() {
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        new LogStreamPublisher(nomadClient.v1.client, "allocationId", "task", true, LogStream.Type.stderr, 0,
+            LogStream.Origin.end, command -> { throw new RejectedExecutionException("saturated"); })
+            .subscribe(new LogStreamPublisher.Subscriber() {
+                @Override
+                public void onSubscribe(LogStreamPublisher.Subscription subscription) {
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(LogStream frame) { }
+
+                @Override
+                public void onError(Throwable e) {
+                    error.set(e);
+                }
+
+                @Override
+                public void onComplete() { }
+            });
+
+        assertTrue(error.get() instanceof RejectedExecutionException);
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void downloadAllocationFileResumesTest() throws IOException {
+        final String content = "0123456789abcdef";
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(ClientApi.allocationFileReadUrl)
+            .expand(ImmutableMap.<String, Object>of("allocationId", "allocationId", "path", "/alloc/dump", "offset", 10))))
+            .willReturn(aResponse().withBody(content.substring(10))));
+
+        final Path target = temporaryFolder.newFile().toPath();
+        Files.write(target, content.substring(0, 10).getBytes(StandardCharsets.UTF_8));
+
+        final List<Long> positions = new ArrayList<>();
+        final long written = new AllocationFileDownloader(nomadClient.v1.client, 4)
+            .download("allocationId", "/alloc/dump", target, (position, length) -> positions.add(position));
+
+        assertEquals(6, written);
+        assertEquals(content, new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList(14L, 16L), positions);
+    }
+
+    @Test
+    public void catAllocationFileTest() throws IOException {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(ClientApi.allocationFileCatUrl)
+            .expand(ImmutableMap.<String, Object>of("allocationId", "allocationId", "path", "/alloc/logs/out"))))
+            .willReturn(aResponse().withBody("hello")));
+
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        new AllocationFileDownloader(nomadClient.v1.client)
+            .cat("allocationId", "/alloc/logs/out", Channels.newChannel(target), null);
+
+        assertEquals("hello", new String(target.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void catCompressedAllocationFileTest() throws IOException {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(ClientApi.allocationFileCatUrl)
+            .expand(ImmutableMap.<String, Object>of("allocationId", "allocationId", "path", "/alloc/logs/out"))))
+            .willReturn(aResponse().withHeader("Content-Encoding", "gzip").withBody(JobsApiTest.gzip("hello"))));
+
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        new AllocationFileDownloader(nomadClient.v1.client)
+            .cat("allocationId", "/alloc/logs/out", Channels.newChannel(target), null);
+
+        assertEquals("hello", new String(target.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = FeignException.class)
+    public void catMissingAllocationFileTest() throws IOException {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(ClientApi.allocationFileCatUrl)
+            .expand(ImmutableMap.<String, Object>of("allocationId", "allocationId", "path", "/missing"))))
+            .willReturn(aResponse().withStatus(404)));
+
+        new AllocationFileDownloader(nomadClient.v1.client)
+            .cat("allocationId", "/missing", Channels.newChannel(new ByteArrayOutputStream()), null);
+    }
+
+    private static String rangeUrl(long offset, long limit) {
+        return UriTemplate.fromTemplate(ClientApi.allocationFileContentOffsetUrl)
+            .expand(ImmutableMap.<String, Object>of("allocationId", "allocationId", "path", "/alloc/core",
+                "offset", offset, "limit", limit));
+    }
+
+    @Test
+    public void downloadAllocationFileInParallelTest() throws IOException {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(ClientApi.allocationFileStatsUrl)
+            .expand(ImmutableMap.of("allocationId", "allocationId", "path", "/alloc/core"))))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("{\"Name\":\"core\",\"IsDir\":false,\"Size\":10}")));
+
+        stubFor(get(urlEqualTo(rangeUrl(0, 4))).willReturn(aResponse().withBody("0123")));
+        stubFor(get(urlEqualTo(rangeUrl(8, 2))).willReturn(aResponse().withBody("89")));
+
+        // the second range fails once and is fetched again
+        stubFor(get(urlEqualTo(rangeUrl(4, 4))).inScenario("retry").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(503)).willSetStateTo("failed"));
+        stubFor(get(urlEqualTo(rangeUrl(4, 4))).inScenario("retry").whenScenarioStateIs("failed")
+            .willReturn(aResponse().withBody("4567")));
+
+        final Path target = temporaryFolder.newFile().toPath();
+        final long size = new AllocationFileDownloader(nomadClient.v1.client)
+            .downloadParallel("allocationId", "/alloc/core", target, 2, 4, 2, Executors.newFixedThreadPool(2), null);
+
+        assertEquals(10, size);
+        assertEquals("0123456789", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void downloadInParallelWithoutWorkersTest() throws IOException {
+        downloadInParallel(0, 4, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void downloadInParallelWithoutChunksTest() throws IOException {
+        downloadInParallel(2, 0, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void downloadInParallelWithoutAttemptsTest() throws IOException {
+        downloadInParallel(2, 4, 0);
+    }
+
+    private void downloadInParallel(final int parallelism, final long chunkSize, final int attempts)
+        throws IOException {
+        final Path target = temporaryFolder.getRoot().toPath().resolve("core");
+        try {
+            new AllocationFileDownloader(nomadClient.v1.client).downloadParallel("allocationId", "/alloc/core", target,
+                parallelism, chunkSize, attempts, Runnable::run, null);
+        } finally {
+            // rejected before the agent is asked or the file created
+            assertFalse(Files.exists(target));
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.zanella.nomad.v1;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
@@ -12,6 +13,7 @@ import com.damnhandy.uri.template.UriTemplate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import io.github.zanella.nomad.v1.common.models.QueryResult;
 import io.github.zanella.nomad.v1.common.models.UpdateStrategy;
 import io.github.zanella.nomad.v1.jobs.JobsApi;
 import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
@@ -20,7 +22,13 @@ import io.github.zanella.nomad.v1.jobs.models.JobSummary;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 public class JobsApiTest extends AbstractCommon {
 
@@ -65,6 +73,69 @@ public class JobsApiTest extends AbstractCommon {
         assertEquals(expectedJobList, nomadClient.v1.jobs.getJobsForRegion("region"));
     }
 
+    @Test
+    public void getJobsBlockingTest() {
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(JobsApi.jobsBlockingUrl)
+            .expand(ImmutableMap.<String, Object>of("index", 13, "wait", "5m"))))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("X-Nomad-Index", "14")
+                .withHeader("X-Nomad-KnownLeader", "true")
+                .withHeader("X-Nomad-LastContact", "3")
+                .withBody(jobsRawResponse)
+            )
+        );
+
+        final List<JobSummary> expectedJobList = ImmutableList.of(
+            new JobSummary("binstore-storagelocker", "binstore-storagelocker", "service", 50, "" , "", 14, 14));
+
+        assertEquals(new QueryResult<>(expectedJobList, 14, true, 3), nomadClient.v1.jobs.getJobs(13, "5m"));
+    }
+
+    @Test
+    public void streamJobsTest() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+                .willReturn(aResponse()
+                                .withHeader("Content-Type", "application/json")
+                                .withBody(jobsRawResponse)
+                )
+        );
+
+        final List<JobSummary> expectedJobList = ImmutableList.of(
+                new JobSummary("binstore-storagelocker", "binstore-storagelocker", "service", 50, "" , "", 14, 14));
+
+        try (Stream<JobSummary> jobs = nomadClient.v1.jobs.streamJobs()) {
+            assertEquals(expectedJobList, jobs.collect(Collectors.toList()));
+        }
+    }
+
+    static byte[] gzip(final String body) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    @Test
+    public void getCompressedJobsTest() throws IOException {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).withHeader("Accept-Encoding", equalTo("gzip"))
+                .willReturn(aResponse()
+                                .withHeader("Content-Type", "application/json")
+                                .withHeader("Content-Encoding", "gzip")
+                                .withBody(gzip(jobsRawResponse))
+                )
+        );
+
+        final List<JobSummary> expectedJobList = ImmutableList.of(
+                new JobSummary("binstore-storagelocker", "binstore-storagelocker", "service", 50, "" , "", 14, 14));
+
+        assertEquals(expectedJobList, nomadClient.v1.jobs.getJobs());
+        try (Stream<JobSummary> jobs = nomadClient.v1.jobs.streamJobs()) {
+            assertEquals(expectedJobList, jobs.collect(Collectors.toList()));
+        }
+    }
+
     @Test
     public void postJobTest() throws Exception {
         final String rawEvalResult = "{ \"EvalID\": \"d092fdc0-e1fd-2536-67d8-43af8ca798ac\"," +
@@ -0,0 +1,70 @@
+package io.github.zanella.nomad.v1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class JsonSequenceSpliteratorTest {
+
+    @Test
+    public void closeUnderReadTest() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        // a socket waiting on the agent, failing once closed
+        final InputStream socket = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                return read(new byte[1], 0, 1);
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                reading.countDown();
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Socket closed");
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+
+        final JsonParser parser = new ObjectMapper().getFactory().createParser(new SequenceInputStream(
+            new ByteArrayInputStream("[{\"Offset\":1},".getBytes(StandardCharsets.UTF_8)), socket));
+        assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+        final JsonSequenceSpliterator<Object> elements = new JsonSequenceSpliterator<>(parser,
+            p -> p.readValueAsTree(), socket, true);
+
+        assertTrue(elements.tryAdvance(element -> { }));
+        final CompletableFuture<Boolean> advanced = CompletableFuture.supplyAsync(
+            () -> elements.tryAdvance(element -> { }));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        elements.close();
+
+        // the parser belongs to the reading thread until it leaves the read
+        assertFalse(advanced.get(5, TimeUnit.SECONDS));
+        assertTrue(parser.isClosed());
+        assertFalse(elements.tryAdvance(element -> { }));
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.zanella.nomad.v1;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LazyTargetTest extends AbstractCommon {
+
+    private final V1Client lazyClient = NomadClient.builder("localhost").lazy(true).build();
+
+    @Test
+    public void objectMethodsDoNotInitializeTest() {
+        assertTrue(lazyClient.regions.equals(lazyClient.regions));
+        assertFalse(lazyClient.regions.equals(lazyClient.status));
+        assertEquals(System.identityHashCode(lazyClient.regions), lazyClient.regions.hashCode());
+        assertTrue(lazyClient.regions.toString().startsWith("Lazy"));
+    }
+
+    @Test
+    public void concurrentFirstCallsTest() throws Exception {
+        stubFor(get(urlEqualTo(RegionsApi.regionsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[\"global\"]")));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<List<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                calls.add(lazyClient.regions::getRegions);
+            }
+            for (final Future<List<String>> regions : executor.invokeAll(calls)) {
+                assertEquals(ImmutableList.of("global"), regions.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
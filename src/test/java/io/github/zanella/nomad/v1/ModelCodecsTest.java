@@ -0,0 +1,187 @@
+package io.github.zanella.nomad.v1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.xebia.jacksonlombok.JacksonLombokAnnotationIntrospector;
+
+import io.github.zanella.nomad.v1.allocations.models.Allocation;
+import io.github.zanella.nomad.v1.client.models.AllocationStats;
+import io.github.zanella.nomad.v1.common.models.TaskState;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.nodes.models.NodeAllocation;
+import io.github.zanella.nomad.v1.nodes.models.NodeSummary;
+import io.github.zanella.nomad.v1.nodes.models.Resources;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ModelCodecsTest {
+
+    private final ObjectMapper codecs = V1Client.customObjectMapper();
+
+    private final ObjectMapper reflective = V1Client.reflectiveObjectMapper();
+
+    /** Every model with a reader in {@link ModelCodecs}. */
+    private static final List<Class<?>> MODELS = Arrays.asList(Allocation.class, NodeAllocation.class,
+        NodeSummary.class, JobSummary.class, TaskState.class, TaskState.Event.class, Resources.class,
+        Resources.Network.class, Resources.Network.DynamicPort.class, Resources.Network.ReservedPort.class,
+        AllocationStats.class, AllocationStats.Task.class, AllocationStats.ResourceUsage.class,
+        AllocationStats.CpuStats.class, AllocationStats.MemoryStats.class);
+
+    private int counter;
+
+    @Test
+    public void everyPropertyTest() throws Exception {
+        for (Class<?> model : MODELS) {
+            final Object expected = sample(model, 0);
+            assertEveryPropertySet(expected);
+            final String json = reflective.writer().without(SerializationFeature.WRAP_ROOT_VALUE)
+                .writeValueAsString(expected);
+
+            assertEquals(model.getSimpleName(), expected, codecs.readValue(json, model));
+            assertEquals(model.getSimpleName(), reflective.readValue(json, model), codecs.readValue(json, model));
+        }
+    }
+
+    @Test
+    public void sharedTextsTest() throws Exception {
+        final String allocation = "{\"ID\": \"alloc\", \"EvalID\": \"eval\", \"NodeID\": \"node\", \"JobID\": \"job\","
+            + " \"TaskGroup\": \"cache\", \"ClientStatus\": \"running\", \"DesiredStatus\": \"run\","
+            + " \"Job\": {\"TaskGroups\": [{\"Tasks\": [{\"Driver\": \"docker\"}]}]}}";
+        final String json = "[" + allocation + "," + allocation + "]";
+        final ObjectMapper deduplicating = V1Client.reflectiveObjectMapper()
+            .registerModule(new ModelCodecs(new StringTable(1 << 10)));
+
+        final List<NodeAllocation> allocations = deduplicating.readValue(json,
+            deduplicating.getTypeFactory().constructCollectionType(List.class, NodeAllocation.class));
+        final NodeAllocation first = allocations.get(0);
+        final NodeAllocation second = allocations.get(1);
+
+        assertEquals(reflective.readValue(json,
+            reflective.getTypeFactory().constructCollectionType(List.class, NodeAllocation.class)), allocations);
+        assertSame(first.getNodeId(), second.getNodeId());
+        assertSame(first.getJobId(), second.getJobId());
+        assertSame(first.getTaskGroup(), second.getTaskGroup());
+        assertSame(first.getClientStatus(), second.getClientStatus());
+        assertSame(first.getDesiredStatus(), second.getDesiredStatus());
+        assertSame(first.getJob().getTaskGroups().get(0).getTasks().get(0).getDriver(),
+            second.getJob().getTaskGroups().get(0).getTasks().get(0).getDriver());
+        // unique values are not worth a slot of the table
+        assertNotSame(first.getId(), second.getId());
+        assertNotSame(first.getEvalId(), second.getEvalId());
+    }
+
+    @Test
+    public void smileTest() throws Exception {
+        // the mappers of the ClusterStateCache snapshots, which write the null properties too
+        final ObjectMapper smile = new ObjectMapper(new SmileFactory())
+            .setAnnotationIntrospector(new JacksonLombokAnnotationIntrospector())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        final ObjectMapper smileCodecs = smile.copy().registerModule(new ModelCodecs());
+
+        for (Class<?> model : MODELS) {
+            for (Object expected : Arrays.asList(sample(model, 0), model.getDeclaredConstructor().newInstance())) {
+                final byte[] encoded = smile.writeValueAsBytes(expected);
+
+                assertEquals(model.getSimpleName(), smile.readValue(encoded, model),
+                    smileCodecs.readValue(encoded, model));
+            }
+        }
+    }
+
+    @Test
+    public void coercionsTest() throws Exception {
+        final String json = "[{" +
+            "  \"ID\": \"a\", \"EvalID\": null, \"CreateIndex\": \"7\", \"ModifyIndex\": 9.0, \"CreateTime\": 1e3," +
+            "  \"Unknown\": {\"Nested\": [1, {\"Deeper\": true}]}," +
+            "  \"TaskStates\": {\"redis\": {\"State\": \"dead\", \"Failed\": null, \"Events\": [null, {}," +
+            "    {\"Time\": \"12\", \"FailsTask\": \"true\", \"Signal\": 9, \"Extra\": [\"x\"]}]}, \"web\": null}" +
+            "}, {}]";
+
+        final List<Allocation> decoded = codecs.readValue(json,
+            codecs.getTypeFactory().constructCollectionType(List.class, Allocation.class));
+
+        assertEquals(reflective.readValue(json,
+            reflective.getTypeFactory().constructCollectionType(List.class, Allocation.class)), decoded);
+        assertEquals(Integer.valueOf(7), decoded.get(0).getCreateIndex());
+        assertNull(decoded.get(0).getTaskStates().get("web"));
+        assertEquals(new Allocation(), decoded.get(1));
+    }
+
+    private static void assertEveryPropertySet(final Object model) throws IllegalAccessException {
+        for (Class<?> c = model.getClass(); c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(JsonProperty.class) && !Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    assertNotNull(c.getSimpleName() + "." + field.getName(), field.get(model));
+                }
+            }
+        }
+    }
+
+    /**
+     * An instance of {@code type} with a distinct value in every {@code @JsonProperty}.
+     */
+    private Object sample(final Type type, final int depth) throws Exception {
+        if (type instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (((ParameterizedType) type).getRawType() == List.class) {
+                final List<Object> list = new ArrayList<>();
+                list.add(sample(arguments[0], depth + 1));
+                list.add(sample(arguments[0], depth + 1));
+                return list;
+            }
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("k" + ++counter, sample(arguments[1], depth + 1));
+            return map;
+        }
+        final Class<?> raw = (Class<?>) type;
+        if (raw == String.class || raw == Object.class) {
+            return "v" + ++counter;
+        }
+        if (raw == Integer.class || raw == int.class) {
+            return ++counter;
+        }
+        if (raw == Long.class || raw == long.class) {
+            return 10_000_000_000L + ++counter;
+        }
+        if (raw == Double.class || raw == double.class) {
+            return ++counter + 0.5;
+        }
+        if (raw == Boolean.class || raw == boolean.class) {
+            return true;
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        final Object instance = raw.getDeclaredConstructor().newInstance();
+        for (Class<?> c = raw; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(JsonProperty.class) && !Modifier.isStatic(field.getModifiers())
+                    && depth < 6) {
+                    field.setAccessible(true);
+                    field.set(instance, sample(field.getGenericType(), depth + 1));
+                }
+            }
+        }
+        return instance;
+    }
+}
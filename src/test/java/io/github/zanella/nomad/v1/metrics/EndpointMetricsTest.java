@@ -0,0 +1,69 @@
+package io.github.zanella.nomad.v1.metrics;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.jobs.JobApi;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import feign.FeignException;
+
+public class EndpointMetricsTest extends AbstractCommon {
+
+    private static final String jobs = "[{\"ID\": \"api\"}, {\"ID\": \"web\"}]";
+
+    private final EndpointMetrics metrics = new EndpointMetrics();
+
+    private final V1Client.Builder builder = V1Client.builder("http://localhost", NomadClient.DEFAULT_PORT)
+        .compression(false)
+        .metrics(metrics);
+
+    @Test
+    public void callsAreMeasuredByEndpointTest() throws Exception {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(jobs).withFixedDelay(20)));
+        stubFor(get(urlEqualTo(UriTemplate.fromTemplate(JobApi.jobUrl).expand(ImmutableMap.of("jobId", "missing"))))
+            .willReturn(aResponse().withStatus(404).withBody("job not found")));
+
+        final V1Client v1 = builder.build();
+        assertEquals(2, v1.jobs.getJobs().size());
+        try {
+            v1.job.getJob("missing");
+        } catch (FeignException expected) {
+            // counted as a 404
+        }
+
+        final AsyncV1Client async = builder.buildAsync(Runnable::run);
+        assertEquals(2, async.jobs.call(JobsApi::getJobs).get(5, TimeUnit.SECONDS).size());
+
+        final EndpointMetrics.Endpoint list = metrics.getEndpoints().get("GET " + JobsApi.jobsUrl);
+        assertEquals(2, list.getLatency().getCount());
+        assertTrue(list.getTimeToFirstByte().getPercentile(0.5) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(list.getLatency().getMax() >= list.getTimeToFirstByte().getMax());
+        assertEquals(2, list.getDecode().getCount());
+        assertEquals(2L * jobs.length(), list.getResponseBytes());
+        assertEquals(Long.valueOf(2), list.getCallsByStatus().get(200));
+
+        final EndpointMetrics.Endpoint job = metrics.getEndpoints().get("GET " + JobApi.jobUrl);
+        assertEquals(Long.valueOf(1), job.getCallsByStatus().get(404));
+
+        final String scraped = metrics.scrape();
+        assertTrue(scraped.contains("nomad_client_calls_total{endpoint=\"GET /v1/jobs\",status=\"200\"} 2"));
+        assertTrue(scraped.contains("nomad_client_latency_seconds_count{endpoint=\"GET /v1/job/{jobId}\"} 1"));
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.zanella.nomad.v1.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreWithinPrecisionTest() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_500, histogram.getMean(), 1);
+        assertWithin(50_000_000, histogram.getPercentile(0.5));
+        assertWithin(99_000_000, histogram.getPercentile(0.99));
+        assertEquals(100_000_000, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void bucketsCoverTheLongRangeTest() {
+        for (long value : new long[] { 0, 1, 127, 128, 129, 1 << 20, Long.MAX_VALUE / 3, Long.MAX_VALUE }) {
+            final int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(0.5));
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue(actual + " is not within 1.6% of " + expected, Math.abs(actual - expected) <= expected / 64);
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.nodes.NodeApi;
+import io.github.zanella.nomad.v1.nodes.models.NodeInfo;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+import feign.Response;
+
+public class CachingTransportTest extends AbstractCommon {
+
+    private static final String nodeUrl = UriTemplate.fromTemplate(NodeApi.nodeUrl)
+        .expand(ImmutableMap.of("nodeId", "nodeId"));
+
+    private final PooledTransport pooled = new PooledTransport();
+
+    @After
+    public void shutdown() {
+        pooled.shutdown();
+    }
+
+    private static void stubNode(final String state, final String next, final String name, final long index) {
+        stubFor(get(urlEqualTo(nodeUrl)).inScenario("node").whenScenarioStateIs(state)
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("X-Nomad-Index", String.valueOf(index))
+                .withBody("{\"ID\": \"nodeId\", \"Name\": \"" + name + "\"}"))
+            .willSetStateTo(next));
+    }
+
+    @Test
+    public void repeatedReadsAreCachedUntilWrittenTest() {
+        stubNode(Scenario.STARTED, Scenario.STARTED, "first", 3);
+        stubFor(put(urlEqualTo(UriTemplate.fromTemplate(NodeApi.drainUrl)
+            .expand(ImmutableMap.of("nodeId", "nodeId", "enableSwitch", true))))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("{}")));
+
+        final CachingTransport caching = new CachingTransport(pooled);
+        final V1Client v1 = NomadClient.builder("localhost").transport(caching).build();
+
+        assertEquals("first", v1.node.getNode("nodeId").getName());
+        assertEquals("first", v1.node.getNode("nodeId").getName());
+        verify(1, getRequestedFor(urlEqualTo(nodeUrl)));
+        assertEquals(1, caching.getHitCount());
+
+        v1.node.putDrain("nodeId", true);
+        v1.node.getNode("nodeId");
+        verify(2, getRequestedFor(urlEqualTo(nodeUrl)));
+    }
+
+    @Test
+    public void staleEntryIsRefreshedInBackgroundTest() throws InterruptedException {
+        stubNode(Scenario.STARTED, "changed", "first", 3);
+        stubNode("changed", "changed", "second", 5);
+
+        final CachingTransport caching = new CachingTransport(pooled, 1 << 20)
+            .ttl("/v1/node/", 200, TimeUnit.MILLISECONDS);
+        final V1Client v1 = NomadClient.builder("localhost").transport(caching).build();
+
+        assertEquals("first", v1.node.getNode("nodeId").getName());
+        Thread.sleep(250);
+
+        // answered from the stale entry while it is refreshed
+        assertEquals("first", v1.node.getNode("nodeId").getName());
+        assertEquals(1, caching.getStaleHitCount());
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String name;
+        do {
+            Thread.sleep(20);
+            name = v1.node.getNode("nodeId").getName();
+        } while (!"second".equals(name) && System.nanoTime() < deadline);
+        assertEquals("second", name);
+        assertTrue(caching.getWeightedSize() > 0);
+    }
+
+    @Test
+    public void readInFlightDuringWriteIsNotCachedTest() throws Exception {
+        stubFor(get(urlEqualTo(nodeUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("{\"ID\": \"nodeId\", \"Drain\": false}").withFixedDelay(300)));
+        stubFor(put(urlEqualTo(UriTemplate.fromTemplate(NodeApi.drainUrl)
+            .expand(ImmutableMap.of("nodeId", "nodeId", "enableSwitch", true))))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("{}")));
+
+        final CachingTransport caching = new CachingTransport(pooled);
+        final V1Client v1 = NomadClient.builder("localhost").transport(caching).build();
+
+        // the read is answered with the state before the drain, after the drain went through
+        final CompletableFuture<NodeInfo> before = CompletableFuture.supplyAsync(() -> v1.node.getNode("nodeId"));
+        Thread.sleep(100);
+        v1.node.putDrain("nodeId", true);
+        before.get(5, TimeUnit.SECONDS);
+
+        v1.node.getNode("nodeId");
+        verify(2, getRequestedFor(urlEqualTo(nodeUrl)));
+        assertEquals(0, caching.getHitCount());
+    }
+
+    @Test
+    public void nodeAllocationsAreNotCachedTest() {
+        final String allocationsUrl = UriTemplate.fromTemplate(NodeApi.allocationsUrl)
+            .expand(ImmutableMap.of("nodeId", "nodeId"));
+        stubFor(get(urlEqualTo(allocationsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+
+        final CachingTransport caching = new CachingTransport(pooled);
+        final V1Client v1 = NomadClient.builder("localhost").transport(caching).build();
+
+        v1.node.getNodeAllocations("nodeId");
+        v1.node.getNodeAllocations("nodeId");
+        verify(2, getRequestedFor(urlEqualTo(allocationsUrl)));
+    }
+
+    @Test(timeout = 5000, expected = IllegalStateException.class)
+    public void failureToStoreReachesTheCallerTest() throws IOException {
+        final CachingTransport caching = new CachingTransport(new Transport() {
+            @Override
+            public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+                final InputStream broken = new InputStream() {
+                    @Override
+                    public int read() {
+                        throw new IllegalStateException("broken body");
+                    }
+                };
+                return CompletableFuture.completedFuture(Response.create(200, "OK",
+                    Collections.<String, Collection<String>>emptyMap(), broken, null));
+            }
+
+            @Override
+            public Response execute(final Request request, final Request.Options options) {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        caching.execute(Request.create("GET", "http://localhost:4646" + nodeUrl,
+            Collections.<String, Collection<String>>emptyMap(), null, null), new Request.Options());
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+import feign.Response;
+
+public class CoalescingTransportTest extends AbstractCommon {
+
+    private final PooledTransport pooled = new PooledTransport();
+
+    private final CoalescingTransport coalescing = new CoalescingTransport(pooled);
+
+    private final AsyncV1Client asyncClient = new AsyncV1Client("http://localhost", NomadClient.DEFAULT_PORT,
+        Transports.defaultExecutor(), coalescing);
+
+    @Before
+    public void stubSlowJobs() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("[{\"ID\": \"api\"}]").withFixedDelay(300)));
+    }
+
+    @After
+    public void shutdown() {
+        pooled.shutdown();
+    }
+
+    @Test
+    public void concurrentCallsShareOneExchangeTest() throws Exception {
+        final List<CompletableFuture<List<JobSummary>>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            calls.add(asyncClient.jobs.call(JobsApi::getJobs));
+        }
+
+        final List<JobSummary> first = calls.get(0).get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<List<JobSummary>> call : calls) {
+            assertEquals("api", call.get(5, TimeUnit.SECONDS).get(0).getId());
+        }
+        assertNotSame(first, calls.get(1).get());
+
+        verify(1, getRequestedFor(urlEqualTo(JobsApi.jobsUrl)));
+        assertEquals(1, coalescing.getExchangeCount());
+        assertEquals(4, coalescing.getCoalescedCount());
+
+        // the next call starts a new exchange
+        asyncClient.jobs.call(JobsApi::getJobs).get(5, TimeUnit.SECONDS);
+        verify(2, getRequestedFor(urlEqualTo(JobsApi.jobsUrl)));
+    }
+
+    @Test
+    public void cancellingOneCallKeepsTheOthersTest() throws Exception {
+        final CompletableFuture<List<JobSummary>> cancelled = asyncClient.jobs.call(JobsApi::getJobs);
+        final CompletableFuture<List<JobSummary>> kept = asyncClient.jobs.call(JobsApi::getJobs);
+        cancelled.cancel(true);
+
+        assertEquals("api", kept.get(5, TimeUnit.SECONDS).get(0).getId());
+        assertEquals(1, coalescing.getCoalescedCount());
+    }
+
+    @Test
+    public void joiningAnAbandonedExchangeStartsAnotherTest() throws Exception {
+        final CountDownLatch aborting = new CountDownLatch(1);
+        final CountDownLatch abort = new CountDownLatch(1);
+        final List<CompletableFuture<Response>> exchanges = new CopyOnWriteArrayList<>();
+        // an exchange whose cancellation takes a while, leaving room for a newcomer
+        final CoalescingTransport slowToAbort = new CoalescingTransport(new Transport() {
+            @Override
+            public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options) {
+                final CompletableFuture<Response> exchange = new CompletableFuture<Response>() {
+                    @Override
+                    public boolean cancel(final boolean mayInterruptIfRunning) {
+                        aborting.countDown();
+                        try {
+                            abort.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.cancel(mayInterruptIfRunning);
+                    }
+                };
+                exchanges.add(exchange);
+                return exchange;
+            }
+
+            @Override
+            public Response execute(final Request request, final Request.Options options) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        final Request request = Request.create("GET", "http://localhost:4646" + JobsApi.jobsUrl,
+            Collections.<String, Collection<String>>emptyMap(), null, null);
+
+        final CompletableFuture<Response> cancelled = slowToAbort.executeAsync(request, new Request.Options());
+        final CompletableFuture<Boolean> cancelling = CompletableFuture.supplyAsync(() -> cancelled.cancel(true));
+        assertTrue(aborting.await(5, TimeUnit.SECONDS));
+
+        final CompletableFuture<Response> newcomer = slowToAbort.executeAsync(request, new Request.Options());
+        abort.countDown();
+        assertTrue(cancelling.get(5, TimeUnit.SECONDS));
+
+        assertEquals(2, exchanges.size());
+        assertFalse(newcomer.isDone());
+        exchanges.get(1).complete(Response.create(200, "OK", Collections.<String, Collection<String>>emptyMap(),
+            new byte[0]));
+        assertEquals(200, newcomer.get(5, TimeUnit.SECONDS).status());
+        assertEquals(0, slowToAbort.getCoalescedCount());
+    }
+}
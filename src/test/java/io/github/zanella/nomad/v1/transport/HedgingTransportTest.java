@@ -0,0 +1,69 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HedgingTransportTest extends AbstractCommon {
+
+    private final PooledTransport pooled = new PooledTransport();
+
+    @Before
+    public void stubSlowThenFast() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).inScenario("hedge").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")
+                .withFixedDelay(1000))
+            .willSetStateTo("hedged"));
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).inScenario("hedge").whenScenarioStateIs("hedged")
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+    }
+
+    @After
+    public void shutdown() {
+        pooled.shutdown();
+    }
+
+    @Test
+    public void slowReadIsHedgedTest() {
+        final HedgingTransport hedging = new HedgingTransport(pooled, 0.95, 50, TimeUnit.MILLISECONDS, 1,
+            HedgingTransport.IDEMPOTENT_READS);
+        final V1Client v1 = NomadClient.builder("localhost").transport(hedging).build();
+
+        final long start = System.nanoTime();
+        assertEquals(0, v1.jobs.getJobs().size());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900));
+        // the slow exchange is only journaled once WireMock is done with it
+        assertEquals(1, hedging.getHedgeCount());
+    }
+
+    @Test
+    public void hedgeBudgetIsEnforcedTest() {
+        final HedgingTransport hedging = new HedgingTransport(pooled, 0.95, 50, TimeUnit.MILLISECONDS, 0,
+            HedgingTransport.IDEMPOTENT_READS);
+        final V1Client v1 = NomadClient.builder("localhost").transport(hedging).build();
+
+        assertEquals(0, v1.jobs.getJobs().size());
+
+        verify(1, getRequestedFor(urlEqualTo(JobsApi.jobsUrl)));
+        assertEquals(0, hedging.getHedgeCount());
+        assertEquals(1, hedging.getRequestCount());
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.Assert.assertEquals;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.AsyncV1Client;
+import io.github.zanella.nomad.v1.client.models.LogStream;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.jobs.models.JobSummary;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class Http2TransportTest extends AbstractCommon {
+
+    private final Http2Transport transport = new Http2Transport();
+
+    @After
+    public void shutdown() {
+        transport.shutdown();
+    }
+
+    @Test
+    public void concurrentLogStreamsTest() throws Exception {
+        stubFor(get(urlPathEqualTo("/v1/client/fs/logs/allocationId"))
+            .willReturn(aResponse().withHeader("Content-Type", "text/plain").withFixedDelay(100)
+                .withBody("{\"Offset\":65536,\"Data\":\"dGVzdA0K\",\"File\":\"alloc/logs/nginx.stderr.0\"}")));
+
+        final AsyncV1Client asyncClient = NomadClient.builder("localhost").transport(transport)
+            .buildAsync(Transports.defaultExecutor());
+
+        final List<CompletableFuture<List<LogStream>>> streams = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            streams.add(asyncClient.client.call(api ->
+                api.getAllocationLogStreamsList("allocationId", "task", false, LogStream.Type.stderr, 0, LogStream.Origin.start, false)));
+        }
+
+        for (final CompletableFuture<List<LogStream>> stream : streams) {
+            assertEquals(1, stream.get(5, TimeUnit.SECONDS).size());
+        }
+
+        // cleartext without prior knowledge never upgrades
+        assertEquals(0, transport.getHttp2Connections());
+        assertEquals(transport.getHttp1Connections(), transport.getStats().getConnections());
+    }
+
+    @Test
+    public void priorKnowledgeMultiplexesOneConnectionTest() throws Exception {
+        final int streams = 20;
+        final CountDownLatch arrived = new CountDownLatch(streams);
+        final MockWebServer h2c = new MockWebServer();
+        h2c.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        h2c.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+                if (request.getPath().equals(JobsApi.jobsUrl)) {
+                    // answered once every exchange is open, which one connection allows only by multiplexing them
+                    arrived.countDown();
+                    arrived.await(5, TimeUnit.SECONDS);
+                }
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody("[]");
+            }
+        });
+        h2c.start();
+
+        final Http2Transport priorKnowledge = new Http2Transport(true);
+        try {
+            final AsyncV1Client asyncClient = NomadClient.builder(h2c.getHostName(), h2c.getPort())
+                .transport(priorKnowledge).buildAsync(Transports.defaultExecutor());
+            // connect first, so the concurrent calls find the connection instead of racing to open their own
+            asyncClient.regions.call(RegionsApi::getRegions).get(5, TimeUnit.SECONDS);
+
+            final List<CompletableFuture<List<JobSummary>>> calls = new ArrayList<>();
+            for (int i = 0; i < streams; i++) {
+                calls.add(asyncClient.jobs.call(JobsApi::getJobs));
+            }
+            for (final CompletableFuture<List<JobSummary>> call : calls) {
+                assertEquals(0, call.get(5, TimeUnit.SECONDS).size());
+            }
+
+            assertEquals(0, arrived.getCount());
+            assertEquals(1, priorKnowledge.getHttp2Connections());
+            assertEquals(0, priorKnowledge.getHttp1Connections());
+            assertEquals(streams + 1, h2c.getRequestCount());
+        } finally {
+            priorKnowledge.shutdown();
+            h2c.shutdown();
+        }
+    }
+}
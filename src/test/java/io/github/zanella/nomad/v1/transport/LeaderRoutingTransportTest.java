@@ -0,0 +1,86 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.nodes.NodeApi;
+import io.github.zanella.nomad.v1.nodes.models.NodeEvalResult;
+import io.github.zanella.nomad.v1.status.StatusApi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LeaderRoutingTransportTest extends AbstractCommon {
+
+    private static final String evaluateUrl = UriTemplate.fromTemplate(NodeApi.evaluateUrl)
+        .expand(ImmutableMap.of("nodeId", "nodeId"));
+
+    private static final String rawEvaluate = "{\"EvalIDs\": [\"eval\"], \"EvalCreateIndex\": 35, \"NodeModifyIndex\": 34}";
+
+    private final PooledTransport pooled = new PooledTransport();
+
+    // both servers are this WireMock instance, told apart by the Host header
+    private final V1Client v1 = NomadClient.builder("localhost").transport(new LeaderRoutingTransport(pooled)).build();
+
+    @Before
+    public void stubServers() {
+        stubFor(get(urlEqualTo(StatusApi.leaderUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("\"127.0.0.1:4647\"")));
+        stubFor(get(urlEqualTo(StatusApi.peersUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("[\"127.0.0.1:4647\", \"localhost:4647\"]")));
+    }
+
+    @After
+    public void shutdown() {
+        pooled.shutdown();
+    }
+
+    @Test
+    public void writesGoToLeaderAndReadsAreStaleTest() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl + "?stale"))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+        stubFor(put(urlEqualTo(evaluateUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(rawEvaluate)));
+
+        v1.jobs.getJobs();
+        v1.jobs.getJobs();
+        assertEquals(new NodeEvalResult(ImmutableList.of("eval"), 35, 34), v1.node.putEvaluate("nodeId"));
+
+        verify(1, getRequestedFor(urlEqualTo(JobsApi.jobsUrl + "?stale")).withHeader("Host", equalTo("127.0.0.1:4646")));
+        verify(1, getRequestedFor(urlEqualTo(JobsApi.jobsUrl + "?stale")).withHeader("Host", equalTo("localhost:4646")));
+        verify(1, putRequestedFor(urlEqualTo(evaluateUrl)).withHeader("Host", equalTo("127.0.0.1:4646")));
+        verify(1, getRequestedFor(urlEqualTo(StatusApi.leaderUrl)));
+    }
+
+    @Test
+    public void noLeaderRefreshesServersTest() {
+        stubFor(put(urlEqualTo(evaluateUrl)).inScenario("election").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(500).withBody("No cluster leader")).willSetStateTo("elected"));
+        stubFor(put(urlEqualTo(evaluateUrl)).inScenario("election").whenScenarioStateIs("elected")
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(rawEvaluate)));
+
+        assertEquals(new NodeEvalResult(ImmutableList.of("eval"), 35, 34), v1.node.putEvaluate("nodeId"));
+
+        verify(2, putRequestedFor(urlEqualTo(evaluateUrl)));
+        verify(2, getRequestedFor(urlEqualTo(StatusApi.leaderUrl)));
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.resetAllRequests;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.agent.AgentApi;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class LoadBalancingTransportTest extends AbstractCommon {
+
+    private static final String slowServer = "127.0.0.1:4646";
+
+    private static final String fastServer = "localhost:4646";
+
+    private static final String thirdServer = "127.0.0.2:4646";
+
+    private final PooledTransport pooled = new PooledTransport();
+
+    private final LoadBalancingTransport transport = new LoadBalancingTransport(pooled);
+
+    // both servers are this WireMock instance, told apart by the Host header
+    private final V1Client v1 = NomadClient.builder("localhost").transport(transport).build();
+
+    @Before
+    public void stubServers() {
+        stubFor(get(urlEqualTo(AgentApi.serversUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("[\"127.0.0.1:4647\", \"localhost:4647\"]")));
+    }
+
+    @After
+    public void shutdown() {
+        pooled.shutdown();
+    }
+
+    private static void stubThreeServers() {
+        stubFor(get(urlEqualTo(AgentApi.serversUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json")
+                .withBody("[\"127.0.0.1:4647\", \"localhost:4647\", \"127.0.0.2:4647\"]")));
+    }
+
+    private static int requestsTo(final String host) {
+        final List<LoggedRequest> requests = WireMock.findAll(getRequestedFor(urlEqualTo(JobsApi.jobsUrl))
+            .withHeader("Host", equalTo(host)));
+        return requests.size();
+    }
+
+    @Test
+    public void prefersFasterServerTest() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).withHeader("Host", equalTo(slowServer))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")
+                .withFixedDelay(200)));
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).withHeader("Host", equalTo(fastServer))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+
+        for (int i = 0; i < 20; i++) {
+            v1.jobs.getJobs();
+        }
+
+        assertTrue(requestsTo(slowServer) <= 2);
+        assertEquals(20, requestsTo(slowServer) + requestsTo(fastServer));
+    }
+
+    @Test
+    public void failingServerIsEjectedTest() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).withHeader("Host", equalTo(slowServer))
+            .willReturn(aResponse().withStatus(503)));
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).withHeader("Host", equalTo(fastServer))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+
+        // failed reads are retried on the other server
+        for (int i = 0; i < 20; i++) {
+            v1.jobs.getJobs();
+        }
+
+        assertTrue(requestsTo(slowServer) <= LoadBalancingTransport.FAILURES_TO_EJECT);
+        assertTrue(transport.getStats().stream()
+            .anyMatch(stats -> stats.getAddress().equals("http://" + slowServer) && stats.isEjected()));
+        verify(20, getRequestedFor(urlEqualTo(JobsApi.jobsUrl)).withHeader("Host", equalTo(fastServer)));
+    }
+
+    @Test
+    public void blockingQueriesAreNotTimedTest() {
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+        // a long-poll held by the server until its wait elapses
+        stubFor(get(urlMatching(JobsApi.jobsUrl + "\\?index=.*"))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withHeader("X-Nomad-Index", "7")
+                .withBody("[]").withFixedDelay(300)));
+
+        for (int i = 0; i < 10; i++) {
+            v1.jobs.getJobs();
+            v1.jobs.getJobs(7, "300ms");
+        }
+
+        for (EndpointStats stats : transport.getStats()) {
+            assertTrue(stats.getAddress() + " " + stats.getLatencyMillis(), stats.getLatencyMillis() < 150);
+            assertFalse(stats.isEjected());
+        }
+        assertTrue(requestsTo(slowServer) > 0 && requestsTo(fastServer) > 0);
+    }
+
+    @Test
+    public void firstAnswerIsNotEjectedTest() {
+        stubThreeServers();
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")
+                .withFixedDelay(5)));
+
+        // the other servers have no response time yet to compare it to
+        v1.jobs.getJobs();
+
+        assertEquals(3, transport.getStats().size());
+        for (EndpointStats stats : transport.getStats()) {
+            assertFalse(stats.getAddress(), stats.isEjected());
+        }
+    }
+
+    @Test
+    public void slowServerIsEjectedTest() {
+        stubThreeServers();
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")));
+        // every server answers a few times first, so their response times can be compared
+        for (int i = 0; i < 30; i++) {
+            v1.jobs.getJobs();
+        }
+        assertTrue(requestsTo(thirdServer) > 0);
+
+        resetAllRequests();
+        stubFor(get(urlEqualTo(JobsApi.jobsUrl)).withHeader("Host", equalTo(thirdServer))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]")
+                .withFixedDelay(300)));
+        for (int i = 0; i < 30; i++) {
+            v1.jobs.getJobs();
+        }
+
+        assertTrue(transport.getStats().stream()
+            .anyMatch(stats -> stats.getAddress().equals("http://" + thirdServer) && stats.isEjected()));
+        assertTrue(requestsTo(thirdServer) <= 3);
+    }
+}
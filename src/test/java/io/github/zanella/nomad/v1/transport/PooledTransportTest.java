@@ -0,0 +1,101 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.zanella.nomad.NomadClient;
+import io.github.zanella.nomad.v1.AbstractCommon;
+import io.github.zanella.nomad.v1.V1Client;
+import io.github.zanella.nomad.v1.common.models.UpdateStrategy;
+import io.github.zanella.nomad.v1.jobs.JobsApi;
+import io.github.zanella.nomad.v1.jobs.models.JobEvalResult;
+import io.github.zanella.nomad.v1.jobs.models.JobSpec;
+import io.github.zanella.nomad.v1.regions.RegionsApi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+import feign.RetryableException;
+
+public class PooledTransportTest extends AbstractCommon {
+
+    private final PooledTransport transport = new PooledTransport(8, 4, 30, TimeUnit.SECONDS);
+
+    private final V1Client v1 = NomadClient.builder("localhost").transport(transport).build();
+
+    @After
+    public void shutdown() {
+        transport.shutdown();
+    }
+
+    @Test
+    public void connectionIsReusedTest() throws InterruptedException {
+        stubFor(get(urlEqualTo(RegionsApi.regionsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[\"global\"]")));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ImmutableList.of("global"), v1.regions.getRegions());
+        }
+
+        // the dispatcher counts a call as running until its callback has returned
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        PoolStats stats;
+        do {
+            Thread.sleep(10);
+            stats = transport.getStats();
+        } while (stats.getRunningCalls() > 0 && System.nanoTime() < deadline);
+        assertEquals(1, stats.getConnections());
+        assertEquals(1, stats.getIdleConnections());
+        assertEquals(0, stats.getRunningCalls());
+    }
+
+    @Test
+    public void postJobTest() throws Exception {
+        final JobSpec jobSpec = new JobSpec(); {
+            jobSpec.setRegion("us");
+            jobSpec.setType("system");
+            jobSpec.setUpdate(new UpdateStrategy(1, 30d));
+        }
+
+        stubFor(post(urlEqualTo(JobsApi.jobsUrl))
+            .withRequestBody(equalToJson(objectMapper.writeValueAsString(jobSpec)))
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{ \"EvalID\": \"d092fdc0-e1fd-2536-67d8-43af8ca798ac\"," +
+                    "\"EvalCreateIndex\": 35,\"JobModifyIndex\": 34, \"Index\": 348, \"LastContact\": 0," +
+                    "\"KnownLeader\": false }")));
+
+        assertEquals(new JobEvalResult("d092fdc0-e1fd-2536-67d8-43af8ca798ac", 35, 34, 348, 0, false),
+            v1.jobs.postJob(jobSpec));
+    }
+
+    @Test(expected = RetryableException.class)
+    public void readTimeoutFromOptionsTest() {
+        stubFor(get(urlEqualTo(RegionsApi.regionsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[]").withFixedDelay(2000)));
+
+        NomadClient.builder("localhost").transport(transport).options(new Request.Options(1000, 200)).build()
+            .regions.getRegions();
+    }
+
+    @Test
+    public void asyncSharesThePoolTest() throws Exception {
+        stubFor(get(urlEqualTo(RegionsApi.regionsUrl))
+            .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("[\"global\"]")));
+
+        v1.regions.getRegions();
+        assertEquals(ImmutableList.of("global"), NomadClient.builder("localhost").transport(transport)
+            .buildAsync(Transports.defaultExecutor()).regions.call(RegionsApi::getRegions).get(5, TimeUnit.SECONDS));
+        assertEquals(1, transport.getStats().getConnections());
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.zanella.nomad.v1.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TinyLfuCacheTest {
+
+    @Test
+    public void weightIsBoundedTest() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(1000, 100);
+        for (int i = 0; i < 500; i++) {
+            cache.put(i, "value" + i, 10);
+        }
+        assertTrue(cache.weightedSize() <= 1000);
+
+        cache.put(1000, "too heavy", 1001);
+        assertNull(cache.get(1000));
+    }
+
+    @Test
+    public void heavierThanMainAreaTest() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(1000, 100);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "value" + i, 10);
+            cache.get(i);
+        }
+
+        // popular enough to push out every entry of the main area, yet heavier than it
+        for (int i = 0; i < 5; i++) {
+            cache.get(1000);
+        }
+        cache.put(1000, "heavy", 995);
+
+        assertNull(cache.get(1000));
+        assertTrue(cache.weightedSize() <= 1000);
+    }
+
+    @Test
+    public void popularEntriesSurviveScanTest() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 100);
+        for (int hot = 0; hot < 50; hot++) {
+            cache.put(hot, "hot" + hot, 1);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                cache.get(hot);
+            }
+        }
+
+        // a one-off scan ten times the size of the cache
+        for (int cold = 1000; cold < 2000; cold++) {
+            cache.get(cold);
+            cache.put(cold, "cold" + cold, 1);
+        }
+
+        int kept = 0;
+        for (int hot = 0; hot < 50; hot++) {
+            kept += cache.containsKey(hot) ? 1 : 0;
+        }
+        assertEquals(50, kept);
+        assertTrue(cache.weightedSize() <= 100);
+    }
+
+    @Test
+    public void removeIfTest() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 100);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "value" + i, 1);
+        }
+        cache.removeIf(key -> key % 2 == 0);
+        assertEquals(5, cache.size());
+        assertEquals(5, cache.weightedSize());
+    }
+}